@@ -0,0 +1,25 @@
+package pl.pols.lab.services;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+/**
+ * Closes the shared CatalogService when the application is stopped,
+ * so its entity manager factory returns all connections to the pool
+ * and its import threads are stopped.
+ *
+ * @author Kinga Adamczak
+ * @version 1.0
+ */
+public class CatalogListener implements ServletContextListener {
+
+    /**
+     * Closes the service of the stopped application.
+     *
+     * @param event event containing the application context.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent event){
+        CatalogService.close(event.getServletContext());
+    }
+}
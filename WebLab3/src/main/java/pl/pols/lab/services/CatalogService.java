@@ -0,0 +1,577 @@
+package pl.pols.lab.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.servlet.ServletContext;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import pl.polsl.lab.model.Conversion;
+import pl.polsl.lab.model.ConversionContainer;
+import pl.polsl.lab.model.ConversionFileImporter;
+import pl.polsl.lab.model.Converter;
+import pl.polsl.lab.model.InvalidConversionFileException;
+import pl.polsl.lab.model.Unit;
+
+/**
+ * Application-wide snapshot of the unit and conversion tables, shared by all servlets.
+ * The tables are loaded once and kept in memory together with a version number.
+ * Committed writes are applied to the loaded data as they happen, so a write costs
+ * the same regardless of the number of stored units and conversions, and the next
+ * request already sees it. The whole snapshot is loaded again only if it was marked
+ * as outdated (for example after a failed transaction).
+ *
+ * Loaded data is modified in place, so it must only be read while holding the read lock.
+ * Conversions are performed by a single Converter shared by all requests, so paths
+ * found for one request are taken from its cache by the next ones. The cache is
+ * invalidated by the version of the loaded container, which changes with every applied write.
+ * It is also saved in application context as "unitList", "conversionContainer"
+ * and "databasetablemessage", where pages and servlets read it from.
+ *
+ * The service owns the application's EntityManagerFactory, connected to the pooled
+ * "java:app/UnitConverterDB" data source. Entity managers aren't thread-safe, so every
+ * request creates its own short-lived one and closes it when it's done.
+ * Inserts are sent to the database in JDBC batches, sized in persistence.xml.
+ *
+ * @author Kinga Adamczak
+ * @version 1.4
+ */
+public class CatalogService {
+    /** Name of the application context attribute storing the service.*/
+    public static final String ATTRIBUTE = "catalog";
+
+    /**
+     * Enum listing results of storing a group of rows.
+     */
+    public enum WriteResult {
+        /** Transaction was committed and applied to the snapshot.*/
+        COMMITTED,
+        /** Transaction was rolled back, because some rows were stored by another request in the meantime.*/
+        CONFLICT,
+        /** Transaction failed for another reason; the snapshot is marked as outdated.*/
+        FAILED
+    }
+
+    /**
+     * Record storing the result of importing a conversions file.
+     *
+     * @param result result of storing the new conversions.
+     * @param imported number of new conversions.
+     * @param skipped number of lines equal to already stored conversions.
+     */
+    public record ImportResult (WriteResult result, int imported, int skipped){}
+
+    /** Application context receiving loaded data.*/
+    private final ServletContext context;
+    /** Factory creating entity managers for all requests of the application.*/
+    private final EntityManagerFactory entityManagerFactory;
+    /** Number of threads parsing imported files.*/
+    private final int importParallelism;
+    /** Threads parsing imported files, shared by all imports of the application.*/
+    private final ExecutorService importExecutor;
+    /** Lock guarding loaded data - held for reading while data is used, for writing while it's modified.*/
+    private final ReentrantReadWriteLock lock;
+    /** Number of times the snapshot was marked as outdated, increasing monotonically.*/
+    private volatile long version;
+    /** Version the current snapshot was loaded at, -1 if nothing was loaded yet.*/
+    private volatile long loadedVersion;
+    /** Loaded conversions.*/
+    private ConversionContainer container;
+    /** Converter working on the loaded conversions, shared by all requests.*/
+    private Converter converter;
+    /** Loaded units, in the order they were read. A deleted unit is replaced by the last one.*/
+    private ArrayList<Unit> unitList;
+    /** Positions of loaded units in unitList mapped to their symbols.*/
+    private HashMap<String, Integer> unitIndex;
+
+    /**
+     * Constructor connecting to the database. Data is loaded on the first refresh.
+     *
+     * @param servletContext application context receiving loaded data.
+     */
+    private CatalogService(ServletContext servletContext){
+        this.context = servletContext;
+        this.entityManagerFactory = Persistence.createEntityManagerFactory("UnitConverterDB");
+        this.importParallelism = Runtime.getRuntime().availableProcessors();
+        this.importExecutor = Executors.newFixedThreadPool(importParallelism);
+        this.lock = new ReentrantReadWriteLock();
+        this.loadedVersion = -1;
+        this.container = new ConversionContainer();
+        this.converter = new Converter(container);
+        this.unitList = new ArrayList<>();
+        this.unitIndex = new HashMap<>();
+    }
+
+    /**
+     * Returns the service of the application, creating it on first use.
+     *
+     * @param context application context.
+     * @return service shared by all servlets of the application.
+     */
+    public static CatalogService get(ServletContext context){
+        synchronized(context){
+            CatalogService catalog = (CatalogService) context.getAttribute(ATTRIBUTE);
+            if(catalog == null){
+                catalog = new CatalogService(context);
+                context.setAttribute(ATTRIBUTE, catalog);
+            }
+            return catalog;
+        }
+    }
+
+    /**
+     * Closes the service of the application, if it was created, releasing its database connections
+     * and stopping the threads parsing imported files.
+     *
+     * @param context application context.
+     */
+    public static void close(ServletContext context){
+        synchronized(context){
+            CatalogService catalog = (CatalogService) context.getAttribute(ATTRIBUTE);
+            if(catalog != null){
+                context.removeAttribute(ATTRIBUTE);
+                catalog.importExecutor.shutdownNow();
+                catalog.entityManagerFactory.close();
+            }
+        }
+    }
+
+    /**
+     * Loads the database again if the snapshot has been marked as outdated.
+     * If loading fails, empty data is saved and loading is retried on the next refresh.
+     */
+    public void refresh(){
+        if(loadedVersion == version)
+            return;
+
+        lock.writeLock().lock();
+        try{
+            if(loadedVersion != version)
+                load();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads both tables into new containers. Must be called while holding the write lock.
+     */
+    private void load(){
+        long loadingVersion = version;
+        ConversionContainer loadedContainer = new ConversionContainer();
+        List<Unit> loadedUnits = Collections.emptyList();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        //Load data from database to containers
+        try {
+            Query query = entityManager.createQuery("SELECT u FROM Unit u");
+            loadedUnits = query.getResultList();
+
+            query = entityManager.createQuery("SELECT c FROM Conversion c");
+            List<Conversion> conversions = query.getResultList();
+            loadedContainer.addAll(conversions);
+            //Prefixed versions of metric units are resolved without stored conversions
+            for(Unit u : loadedUnits){
+                if(isMetric(u))
+                    loadedContainer.addMetricUnit(u.getSymbol());
+            }
+
+            entityManager.getTransaction().commit();
+            loadedVersion = loadingVersion;
+            context.setAttribute("databasetablemessage", "Data in tables comes from database.");
+        } catch (PersistenceException | IllegalArgumentException e) {
+            //If exception occured (also for rows that can't be read) - make loaded containers empty
+            e.printStackTrace();
+            loadedContainer = new ConversionContainer();
+            loadedUnits = Collections.emptyList();
+
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            context.setAttribute("databasetablemessage", "Database not connected.");
+        } finally {
+            entityManager.close();
+            //Save containers (even empty ones) into application context
+            container = loadedContainer;
+            converter = new Converter(loadedContainer);
+            unitList = new ArrayList<>(loadedUnits);
+            unitIndex = new HashMap<>();
+            for(int i = 0; i < unitList.size(); i++){
+                unitIndex.put(unitList.get(i).getSymbol(), i);
+            }
+            context.setAttribute("unitList", unitList);
+            context.setAttribute("conversionContainer", container);
+        }
+    }
+
+    /**
+     * Marks the snapshot as outdated, so it is loaded again on the next refresh.
+     * Used when the database may have been modified in a way that wasn't applied
+     * to the snapshot.
+     */
+    public void markModified(){
+        lock.writeLock().lock();
+        try{
+            version++;
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed new conversion to the snapshot.
+     *
+     * @param conversion persisted conversion.
+     */
+    public void conversionAdded(Conversion conversion){
+        lock.writeLock().lock();
+        try{
+            container.add(conversion);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies committed new conversions to the snapshot.
+     *
+     * @param conversions persisted conversions.
+     */
+    public void conversionsAdded(Collection<Conversion> conversions){
+        lock.writeLock().lock();
+        try{
+            container.addAll(conversions);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies committed removal of conversions to the snapshot.
+     *
+     * @param conversions removed conversions.
+     */
+    public void conversionsDeleted(Collection<Conversion> conversions){
+        lock.writeLock().lock();
+        try{
+            for(Conversion c : conversions){
+                container.delete(c.getOriginalUnit(), c.getTargetUnit());
+            }
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed new unit to the snapshot.
+     *
+     * @param unit persisted unit.
+     */
+    public void unitAdded(Unit unit){
+        lock.writeLock().lock();
+        try{
+            if(unitIndex.putIfAbsent(unit.getSymbol(), unitList.size()) != null)
+                return;
+            unitList.add(unit);
+            if(isMetric(unit))
+                container.addMetricUnit(unit.getSymbol());
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed change of a unit's full name or system to the snapshot.
+     *
+     * @param unit updated unit.
+     */
+    public void unitUpdated(Unit unit){
+        lock.writeLock().lock();
+        try{
+            Integer index = unitIndex.putIfAbsent(unit.getSymbol(), unitList.size());
+            if(index == null)
+                unitList.add(unit);
+            else
+                unitList.set(index, unit);
+
+            if(isMetric(unit))
+                container.addMetricUnit(unit.getSymbol());
+            else
+                container.removeMetricUnit(unit.getSymbol());
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies committed removal of a unit to the snapshot.
+     *
+     * @param unit removed unit.
+     */
+    public void unitDeleted(Unit unit){
+        lock.writeLock().lock();
+        try{
+            Integer index = unitIndex.remove(unit.getSymbol());
+            if(index != null){
+                //Last unit is moved into the freed position, so no other unit is shifted
+                Unit last = unitList.remove(unitList.size() - 1);
+                if(index < unitList.size()){
+                    unitList.set(index, last);
+                    unitIndex.put(last.getSymbol(), index);
+                }
+            }
+            container.removeMetricUnit(unit.getSymbol());
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores units and conversions in the database in a single transaction,
+     * then applies them to the snapshot. Rows are written in JDBC batches,
+     * so a large group (such as an imported file) needs only a few round trips
+     * to the database. If the transaction fails because some of the rows have been
+     * stored by another request, nothing is changed; otherwise the snapshot is marked as outdated.
+     *
+     * @param units new units, stored before conversions.
+     * @param conversions new conversions.
+     * @return result of the transaction.
+     */
+    public WriteResult persistAll(Collection<Unit> units, Collection<Conversion> conversions){
+        EntityManager entityManager = createEntityManager();
+        try{
+            entityManager.getTransaction().begin();
+            for(Unit u : units){
+                entityManager.persist(u);
+            }
+            for(Conversion c : conversions){
+                entityManager.persist(c);
+            }
+            entityManager.getTransaction().commit();
+        }catch(PersistenceException e){
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            //Rows added by another request are already in the snapshot
+            if(isConstraintViolation(e))
+                return WriteResult.CONFLICT;
+            e.printStackTrace();
+            markModified();
+            return WriteResult.FAILED;
+        }finally{
+            entityManager.close();
+        }
+
+        lock.writeLock().lock();
+        try{
+            for(Unit u : units){
+                unitAdded(u);
+            }
+            container.addAll(conversions);
+        }finally{
+            lock.writeLock().unlock();
+        }
+        return WriteResult.COMMITTED;
+    }
+
+    /**
+     * Checks if an exception was caused by a violated unique or primary key constraint.
+     *
+     * @param e checked exception.
+     * @return true if any of its causes is a constraint violation reported by the database.
+     */
+    private static boolean isConstraintViolation(Throwable e){
+        for(Throwable cause = e; cause != null; cause = cause.getCause()){
+            if(cause instanceof SQLIntegrityConstraintViolationException)
+                return true;
+            //Integrity constraint violations have SQL state class 23
+            if(cause instanceof SQLException && ((SQLException) cause).getSQLState() != null
+               && ((SQLException) cause).getSQLState().startsWith("23"))
+                return true;
+            if(cause.getCause() == cause)
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Reads conversions in the "conversions.txt" format and stores them, together with
+     * missing units, in a single batched transaction. Nothing is stored if any line is incorrect.
+     * Lines equal to loaded conversions are skipped, so importing the same file again changes nothing.
+     * The file is parsed by the shared import threads before the snapshot is locked;
+     * the lock is only held while parsed conversions are checked against loaded ones.
+     * A conversion added by another request after the check makes the transaction fail with a conflict.
+     *
+     * @param reader source of the text, not closed by the method.
+     * @return result of the import with numbers of new and skipped conversions.
+     * @throws IOException if reading fails.
+     * @throws InvalidConversionFileException if any line is incorrect, with indices of all incorrect lines.
+     */
+    public ImportResult importConversions(Reader reader) throws IOException, InvalidConversionFileException{
+        ConversionFileImporter importer = new ConversionFileImporter(importExecutor, importParallelism);
+        ConversionFileImporter.ParsedFile file = importer.parse(reader);
+        
+        List<Conversion> conversions;
+        LinkedHashMap<String, Unit> newUnits = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try{
+            //Conversions already loaded can't be changed by the file
+            conversions = importer.check(file, container);
+            for(Conversion c : conversions){
+                for(String symbol : new String[] { c.getOriginalUnit(), c.getTargetUnit() }){
+                    if(!unitIndex.containsKey(symbol))
+                        newUnits.putIfAbsent(symbol, new Unit(symbol, "Unknown", "Unknown"));
+                }
+            }
+        }finally{
+            lock.readLock().unlock();
+        }
+
+        int skipped = file.size() - conversions.size();
+        if(conversions.isEmpty())
+            return new ImportResult(WriteResult.COMMITTED, 0, skipped);
+        return new ImportResult(persistAll(newUnits.values(), conversions), conversions.size(), skipped);
+    }
+
+    /**
+     * Checks if a unit belongs to the metric system.
+     *
+     * @param unit checked unit.
+     * @return true if prefixed versions of the unit should be resolved.
+     */
+    private static boolean isMetric(Unit unit){
+        return "Metric".equalsIgnoreCase(unit.getSystem());
+    }
+
+    /**
+     * Returns lock that has to be held while loaded data is read.
+     *
+     * @return read lock of the snapshot.
+     */
+    public Lock readLock(){
+        return lock.readLock();
+    }
+
+    /**
+     * Returns version the snapshot was last marked as outdated at.
+     *
+     * @return current version.
+     */
+    public long getVersion(){
+        return version;
+    }
+
+    /**
+     * Returns version the current snapshot was loaded at.
+     *
+     * @return version of the snapshot, -1 if it wasn't loaded successfully yet.
+     */
+    public long getLoadedVersion(){
+        return loadedVersion;
+    }
+
+    /**
+     * Returns loaded conversions. Should only be used while holding the read lock.
+     *
+     * @return conversions of the current snapshot.
+     */
+    public ConversionContainer getContainer(){
+        return container;
+    }
+
+    /**
+     * Returns converter working on the loaded conversions. Its cache is kept between requests.
+     * Should only be used while holding the read lock.
+     *
+     * @return converter of the current snapshot.
+     */
+    public Converter getConverter(){
+        return converter;
+    }
+
+    /**
+     * Returns loaded units. Should only be used while holding the read lock.
+     *
+     * @return units of the current snapshot.
+     */
+    public List<Unit> getUnitList(){
+        return unitList;
+    }
+
+    /**
+     * Returns loaded unit with the specified symbol.
+     *
+     * @param symbol searched for symbol.
+     * @return unit with the symbol, null if it doesn't exist.
+     */
+    public Unit getUnit(String symbol){
+        lock.readLock().lock();
+        try{
+            Integer index = unitIndex.get(symbol);
+            return index == null ? null : unitList.get(index);
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns loaded conversion between the specified units (order doesn't matter).
+     *
+     * @param unit1 first unit symbol.
+     * @param unit2 second unit symbol.
+     * @return conversion between the units, null if it doesn't exist.
+     */
+    public Conversion getConversion(String unit1, String unit2){
+        lock.readLock().lock();
+        try{
+            return container.returnConversion(unit1, unit2);
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns loaded conversions whose target unit is the specified unit.
+     *
+     * @param symbol target unit symbol.
+     * @return copy of the list of matching conversions.
+     */
+    public List<Conversion> getConversionsTo(String symbol){
+        lock.readLock().lock();
+        try{
+            //Only conversions of the unit's direct neighbors are checked
+            ArrayList<Conversion> result = new ArrayList<>();
+            for(String neighbor : container.getNeighbors(symbol)){
+                Conversion c = container.returnConversion(symbol, neighbor);
+                if(c.getTargetUnit().equals(symbol))
+                    result.add(c);
+            }
+            return result;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a new entity manager connected to the database.
+     * It should only be used by one thread and closed by the caller.
+     *
+     * @return new entity manager.
+     */
+    public EntityManager createEntityManager(){
+        return entityManagerFactory.createEntityManager();
+    }
+}
@@ -1,8 +1,5 @@
 package pl.pols.lab.services;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceException;
-import jakarta.persistence.Query;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
@@ -14,13 +11,10 @@ import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import pl.polsl.lab.model.Conversion;
-import pl.polsl.lab.model.ConversionContainer;
-import pl.polsl.lab.model.Converter;
 import pl.polsl.lab.model.Unit;
 import pl.polsl.lab.model.ValueWithUnit;
         
@@ -95,12 +89,9 @@ public class ConvertServlet extends HttpServlet {
             throws ServletException, IOException {
         ServletContext context = getServletContext();
         
-        //Update local information
-        loadDatabase();
-        
-        //Prepare containers
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
-        Converter converter = new Converter(container);
+        //Update local information (database is only queried if it has been modified)
+        CatalogService catalog = CatalogService.get(context);
+        catalog.refresh();
         
         try{             
             //Get user parameters
@@ -110,7 +101,13 @@ public class ConvertServlet extends HttpServlet {
             
             //Perform conversion
             ValueWithUnit input = new ValueWithUnit(originalValue, originalUnit);
-            ValueWithUnit result = converter.convert(input, targetUnit);
+            ValueWithUnit result;
+            catalog.readLock().lock();
+            try{
+                result = catalog.getConverter().convert(input, targetUnit);
+            }finally{
+                catalog.readLock().unlock();
+            }
 
             String resultText = "";
             
@@ -136,49 +133,6 @@ public class ConvertServlet extends HttpServlet {
 
     }
     
-    /**
-     * Loads current state of database into application context.
-     * Saved data is stored in "conversionContainer" and "unitList".
-     */
-    void loadDatabase()
-    {
-        //Get entity manager from application context
-        ServletContext context = getServletContext();        
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
-        
-        //Create new empty containers
-        ConversionContainer container = new ConversionContainer();
-        List<Unit> unitList = Collections.emptyList();
-        
-        entityManager.getTransaction().begin();
-        //Load data from database to containers
-        try {
-            Query query = entityManager.createQuery("SELECT u FROM Unit u");
-            unitList = query.getResultList();
-            
-            query = entityManager.createQuery("SELECT c FROM Conversion c");
-            List<Conversion> conversions = query.getResultList();
-            for(Conversion c : conversions){
-                container.add(c);
-            }
-            
-            entityManager.getTransaction().commit();
-            context.setAttribute("databasetablemessage", "Data in tables comes from database.");    
-        } catch (PersistenceException e) {
-            //If exception occured - make loaded containers empty
-            container = new ConversionContainer();
-            unitList = Collections.emptyList();
-                     
-            entityManager.getTransaction().rollback();
-            context.setAttribute("databasetablemessage", "Database not connected.");
-            context.setAttribute("conversionresult", "Database not connected.");        
-        } finally {           
-            //Save containers (even empty ones) into application context
-            context.setAttribute("unitList", unitList);          
-            context.setAttribute("conversionContainer", container);          
-        }
-        
-    }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -9,19 +9,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
-import jakarta.persistence.PersistenceException;
-import jakarta.persistence.Query;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import pl.polsl.lab.model.Conversion;
 import pl.polsl.lab.model.ConversionContainer;
-import pl.polsl.lab.model.OperationFormat;
+import pl.polsl.lab.model.InvalidConversionFileException;
+import pl.polsl.lab.model.InvalidOperationSequenceException;
+import pl.polsl.lab.model.MetricPrefixTrie;
 import pl.polsl.lab.model.OperationSequence;
+import pl.polsl.lab.model.OperationSequenceLexer;
 import pl.polsl.lab.model.Unit;
 
 /**
@@ -31,66 +32,13 @@ import pl.polsl.lab.model.Unit;
  */
 public class DataServlet extends HttpServlet {   
     
-    /**
-     * Loads database information and saves it in application context.
-     */
-    void loadDatabase()
-    {
-        //Get entity manager from application context
-        ServletContext context = getServletContext();        
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
-        
-        //Create new empty containers
-        ConversionContainer container = new ConversionContainer();
-        List<Unit> unitList = Collections.emptyList();
-        
-        entityManager.getTransaction().begin();
-        
-        //Load data from database to containers
-        try {
-            Query query = entityManager.createQuery("SELECT u FROM Unit u");
-            unitList = query.getResultList();
-            
-            query = entityManager.createQuery("SELECT c FROM Conversion c");
-            List<Conversion> conversions = query.getResultList();
-            for(Conversion c : conversions){
-                container.add(c);
-            }
-            
-            entityManager.getTransaction().commit();
-            context.setAttribute("databasetablemessage", "Data in tables comes from database.");    
-        } catch (PersistenceException e) {
-            //If exception occured - make loaded containers empty
-            container = new ConversionContainer();
-            unitList = Collections.emptyList();
-            
-            entityManager.getTransaction().rollback();    
-            context.setAttribute("databasetablemessage", "Database not connected.");    
-        } finally {          
-            //Save containers (even empty ones) into application context
-            context.setAttribute("unitList", unitList);          
-            context.setAttribute("conversionContainer", container);                   
-        }
-        
-    }
-    
     /**
      * Load database for the first time during launch
      */
     @Override
     public void init(){             
-        //Create context to store entity manager
-        ServletContext context = getServletContext(); 
-        
-        //Create a connection with database for the first time and save it for future uses
-        EntityManagerFactory entityFactory = Persistence.createEntityManagerFactory("UnitConverterDB");
-        EntityManager entityManager = entityFactory.createEntityManager();
-        
-        context.setAttribute("manager", entityManager);
-        
-        //Load current database contents to containers
-        loadDatabase();
-        
+        //Connect with database and load its current contents to containers
+        CatalogService.get(getServletContext()).refresh();
     }
     
     /**
@@ -116,58 +64,62 @@ public class DataServlet extends HttpServlet {
             return;
         }
         
-        //Check operation sequence
-        OperationFormat format = new OperationFormat();
-        Pattern sequenceRegex = format.getOpSequenceRegex();
-        Matcher matcher = sequenceRegex.matcher(operations);
-        if(!matcher.matches())
-        {
-            req.setAttribute("exceptionmessage", "Invalid operation sequence.");
+        //Check and parse operation sequence
+        OperationSequence sequence;
+        try{
+            sequence = OperationSequenceLexer.parse(operations);
+        }catch(InvalidOperationSequenceException e){
+            req.setAttribute("exceptionmessage", "Invalid operation sequence: " + e.getMessage());
             return;
         }
        
-        //Get conversion container
-        ServletContext context = getServletContext();
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
-        List<Unit> unitList = (List<Unit>) context.getAttribute("unitList");
+        //Get shared data
+        CatalogService catalog = CatalogService.get(getServletContext());
         
         //If the conversion already exists, show message and return
-        if(container.exists(originalUnit, targetUnit)){
+        if(catalog.getConversion(originalUnit, targetUnit) != null){
             req.setAttribute("exceptionmessage", "Conversion already exists.");
             return;
         }
                 
-        //Get entity manager
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
+        //Get entity manager for this request
+        EntityManager entityManager = catalog.createEntityManager();
         
         //Begin transaction
         entityManager.getTransaction().begin();
-        
-        //If included units didn't exist already, add them with "Unknown" additional fields
-        if(!unitAlreadyExists(unitList, originalUnit)){
-            Unit newUnit = new Unit(originalUnit, "Unknown", "Unknown");
-            entityManager.persist(newUnit);
-        }
-        if(!unitAlreadyExists(unitList, targetUnit)){
-            Unit newUnit = new Unit(targetUnit, "Unknown", "Unknown");
-            entityManager.persist(newUnit);
-        }
-        entityManager.getTransaction().commit();
-
-        entityManager.getTransaction().begin();
-        try{            
+        try{
+            //If included units didn't exist already, add them with "Unknown" additional fields
+            ArrayList<Unit> newUnits = new ArrayList<>();
+            if(catalog.getUnit(originalUnit) == null){
+                newUnits.add(new Unit(originalUnit, "Unknown", "Unknown"));
+            }
+            if(catalog.getUnit(targetUnit) == null){
+                newUnits.add(new Unit(targetUnit, "Unknown", "Unknown"));
+            }
+            for(Unit newUnit : newUnits){
+                entityManager.persist(newUnit);
+            }
+            
             //Add new conversion
-            Conversion newConversion = new Conversion(originalUnit, targetUnit, operations);
+            Conversion newConversion = new Conversion(originalUnit, targetUnit, sequence);
             entityManager.persist(newConversion);
-
             entityManager.getTransaction().commit();
-        } catch (javax.persistence.PersistenceException e) {
+            
+            //Apply committed units and conversion to the shared data
+            for(Unit newUnit : newUnits){
+                catalog.unitAdded(newUnit);
+            }
+            catalog.conversionAdded(newConversion);
+            req.setAttribute("exceptionmessage", "Conversion succesfully added.");
+        } catch (jakarta.persistence.PersistenceException e) {
             e.printStackTrace();
-            entityManager.getTransaction().rollback();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
             req.setAttribute("exceptionmessage", "A problem occured during transaction.");
+        } finally {
+            entityManager.close();
         }
-        
-        req.setAttribute("exceptionmessage", "Conversion succesfully added.");
     }
     
     /**
@@ -186,53 +138,37 @@ public class DataServlet extends HttpServlet {
             return;
         }
         
-        //Get container from context
-        ServletContext context = getServletContext(); 
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
+        //Get conversion from shared data
+        CatalogService catalog = CatalogService.get(getServletContext());
+        Conversion storedConversion = catalog.getConversion(originalUnit, targetUnit);
 
-        //If container doesn't exist, show message and return
-        if(!container.exists(originalUnit, targetUnit)){
+        //If conversion doesn't exist, show message and return
+        if(storedConversion == null){
             req.setAttribute("exceptionmessage", "Conversion doesn't exist.");
             return;
         }
         
-        //Create Conversion object
-        Conversion conversionToBeDeleted = container.returnConversion(originalUnit, targetUnit);
-        
-        //Get entity menager
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
+        //Get entity menager for this request
+        EntityManager entityManager = catalog.createEntityManager();
 
         //Begin transaction
         entityManager.getTransaction().begin();
         try {
             //Remove conversion
-            conversionToBeDeleted = entityManager.merge(conversionToBeDeleted);
+            Conversion conversionToBeDeleted = entityManager.merge(storedConversion);
             entityManager.remove(conversionToBeDeleted);
             entityManager.getTransaction().commit();
-        } catch (javax.persistence.PersistenceException e) {
+            catalog.conversionsDeleted(List.of(storedConversion));
+            req.setAttribute("exceptionmessage", "Conversion succesfully deleted.");
+        } catch (jakarta.persistence.PersistenceException e) {
             e.printStackTrace();
-            entityManager.getTransaction().rollback();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
             req.setAttribute("exceptionmessage", "A problem occured during transaction.");
         } finally {
-            //entityManager.close();
+            entityManager.close();
         }
-        
-        //Display success message
-        req.setAttribute("exceptionmessage", "Conversion succesfully deleted.");      
-    }
-    
-    /**
-     * Check if unit of the same symbol already exists in array
-     * 
-     * @param symbol searched for symbol
-     * @return true if unit with the symbol is in the array
-     */
-    private Boolean unitAlreadyExists(List<Unit> unitList, String symbol){
-        for(Unit u : unitList){
-            if(u.getSymbol().equals(symbol))
-                return true;
-        }
-        return false;
     }
     
     /**
@@ -258,12 +194,12 @@ public class DataServlet extends HttpServlet {
             return;
         }
         
-        //Get unit list from context
+        //Get shared data
         ServletContext context = getServletContext();
-        List<Unit> unitList = (List<Unit>) context.getAttribute("unitList");
+        CatalogService catalog = CatalogService.get(context);
         
         //If unit with the same symbol already exists, show message and return
-        if(unitAlreadyExists(unitList, unitSymbol)){
+        if(catalog.getUnit(unitSymbol) != null){
             req.setAttribute("exceptionmessage", "Unit already exists.");
             return;
         }
@@ -275,8 +211,8 @@ public class DataServlet extends HttpServlet {
         //Create a new Unit object
         Unit newUnit = new Unit(unitSymbol, unitName, unitSystem);
         
-        //Get entity manager
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
+        //Get entity manager for this request
+        EntityManager entityManager = catalog.createEntityManager();
 
         //if(!entityManager.getTransaction().isActive())
         
@@ -287,16 +223,19 @@ public class DataServlet extends HttpServlet {
             //Add unit to database
             entityManager.persist(newUnit);
             entityManager.getTransaction().commit();
-        } catch (javax.persistence.PersistenceException e) {
+            catalog.unitAdded(newUnit);
+            
+            //Inform that the unit has been succesfully added
+            req.setAttribute("exceptionmessage", "Unit succesfully added.");
+        } catch (jakarta.persistence.PersistenceException e) {
             e.printStackTrace();
-            entityManager.getTransaction().rollback();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
             req.setAttribute("exceptionmessage", "A problem occured during transaction.");
         } finally {
-            //entityManager.close();
+            entityManager.close();
         }
-        
-        //Inform that the unit has been succesfully added
-        context.setAttribute("exceptionmessage", "Unit succesfully added.");
     }
     
     /**
@@ -316,12 +255,11 @@ public class DataServlet extends HttpServlet {
             return;
         }
         
-        //Get unit list from context
-        ServletContext context = getServletContext();
-        List<Unit> unitList = (List<Unit>) context.getAttribute("unitList");
+        //Get shared data
+        CatalogService catalog = CatalogService.get(getServletContext());
         
         //If unit with this symbol doesn't exist, show message and return
-        if(!unitAlreadyExists(unitList, unitSymbol)){
+        if(catalog.getUnit(unitSymbol) == null){
             req.setAttribute("exceptionmessage", "Unit doesn't exist.");
             return;
         }
@@ -333,42 +271,30 @@ public class DataServlet extends HttpServlet {
         //Create a new Unit object
         Unit updatedUnit = new Unit(unitSymbol, unitName, unitSystem);
 
-        //Get entity manager
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
+        //Get entity manager for this request
+        EntityManager entityManager = catalog.createEntityManager();
 
         //Perform transaction
         entityManager.getTransaction().begin();
         try {
             //Merge new Unit object with old Unit object
-            entityManager.merge(updatedUnit);
+            updatedUnit = entityManager.merge(updatedUnit);
             entityManager.getTransaction().commit();
-        } catch (javax.persistence.PersistenceException e) {
+            catalog.unitUpdated(updatedUnit);
+            
+            //Inform that the unit has been succesfully modified
+            req.setAttribute("exceptionmessage", "Unit succesfully updated.");
+        } catch (jakarta.persistence.PersistenceException e) {
             e.printStackTrace();
-            entityManager.getTransaction().rollback();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
             req.setAttribute("exceptionmessage", "A problem occured during transaction.");
         } finally {
-            //entityManager.close();
+            entityManager.close();
         }
-        
-        //Inform that the unit has been succesfully modified
-        req.setAttribute("exceptionmessage", "Unit succesfully updated.");
     }
     
-    /**
-     * Get Unit object with the specified symbol from list.
-     * 
-     * @param symbol symbol of the searched for Unit.
-     * @return Unit object if found, null if not.
-     */
-    private Unit getUnitFromList(List<Unit> unitList, String symbol){
-        for(Unit u : unitList){
-            if(u.getSymbol().equals(symbol)){
-                return u;
-            }
-        }
-        return null;
-    }    
-    
     /**
      * Delete unit with the specified symbol.
      * 
@@ -384,61 +310,172 @@ public class DataServlet extends HttpServlet {
             return;
         }
         
-        //Get unit list from context
-        ServletContext context = getServletContext();
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
-        List<Unit> unitList = (List<Unit>) context.getAttribute("unitList");
+        //Get Unit object of the specified symbol
+        CatalogService catalog = CatalogService.get(getServletContext());
+        Unit storedUnit = catalog.getUnit(unitSymbol);
         
         //If unit doesn't exist, show message and return
-        if(!unitAlreadyExists(unitList, unitSymbol)){
+        if(storedUnit == null){
             req.setAttribute("exceptionmessage", "Unit doesn't exist.");
             return;
         }
         
-        //Get Unit object of the specified symbol
-        Unit unitToBeRemoved = getUnitFromList(unitList, unitSymbol);
+        //Get conversions removed together with the unit
+        List<Conversion> removedConversions = catalog.getConversionsTo(unitSymbol);
         
-        //Get entity manager
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
+        //Get entity manager for this request
+        EntityManager entityManager = catalog.createEntityManager();
         
         //Begin transaction
         entityManager.getTransaction().begin();      
         try {       
             //Delete unit
-            unitToBeRemoved = entityManager.merge(unitToBeRemoved);
+            Unit unitToBeRemoved = entityManager.merge(storedUnit);
             entityManager.remove(unitToBeRemoved);
             
-            for(Conversion conversion : container)
+            for(Conversion conversion : removedConversions)
             {
-                if(conversion.getTargetUnit().equals(unitToBeRemoved.getSymbol()))
-                {
-                    Conversion conv = entityManager.merge(conversion);
-                    entityManager.remove(conv);
-                }
+                Conversion conv = entityManager.merge(conversion);
+                entityManager.remove(conv);
             }
             
+            entityManager.getTransaction().commit();
+            catalog.unitDeleted(storedUnit);
+            catalog.conversionsDeleted(removedConversions);
+            
+            //Show success message
+            req.setAttribute("exceptionmessage", "Unit succesfully deleted.");
+        } catch (jakarta.persistence.PersistenceException e) {
+            e.printStackTrace();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
+            req.setAttribute("exceptionmessage", "A problem occured during transaction.");
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    /**
+     * Registers a base metric unit by setting its measuring system to "Metric",
+     * adding the unit if it doesn't exist. Prefixed versions of the unit are then
+     * resolved when they are converted, so no conversions are stored for them.
+     * 
+     * @param req contains base unit symbol.
+     */
+    private void addMetricUnit(HttpServletRequest req){
+        //Get user input
+        String baseUnit = req.getParameter("originalUnit");
+        
+        //If symbol empty, show message and return
+        if(baseUnit == null || baseUnit.isEmpty()){
+            req.setAttribute("exceptionmessage", "Empty unit symbol.");
+            return;
+        }
+        
+        //If symbol too long, show message and return
+        if(baseUnit.length() > 15){
+            req.setAttribute("exceptionmessage", "Input too long.");
+            return;
+        }
+        
+        //Prefixes can only be added to units without a prefix
+        if(!MetricPrefixTrie.getInstance().isNoPrefixUnit(baseUnit)){
+            req.setAttribute("exceptionmessage", "Unit already has a metric prefix.");
+            return;
+        }
+        
+        //Get the stored unit, if it exists
+        CatalogService catalog = CatalogService.get(getServletContext());
+        Unit storedUnit = catalog.getUnit(baseUnit);
+        if(storedUnit != null && "Metric".equalsIgnoreCase(storedUnit.getSystem())){
+            req.setAttribute("exceptionmessage", "Unit is already a metric unit.");
+            return;
+        }
+        
+        //Get entity manager for this request
+        EntityManager entityManager = catalog.createEntityManager();
+        
+        //Begin transaction
+        entityManager.getTransaction().begin();
+        try {
+            //Add the unit, or change the system of the stored one
+            Unit metricUnit;
+            if(storedUnit == null){
+                metricUnit = new Unit(baseUnit, "Unknown", "Metric");
+                entityManager.persist(metricUnit);
+            }else{
+                metricUnit = entityManager.merge(new Unit(baseUnit, storedUnit.getFullName(), "Metric"));
+            }
             entityManager.getTransaction().commit();
             
-        } catch (javax.persistence.PersistenceException e) {
+            if(storedUnit == null)
+                catalog.unitAdded(metricUnit);
+            else
+                catalog.unitUpdated(metricUnit);
+            req.setAttribute("exceptionmessage", "Metric unit succesfully added.");
+        } catch (jakarta.persistence.PersistenceException e) {
             e.printStackTrace();
-            entityManager.getTransaction().rollback();
+            if(entityManager.getTransaction().isActive())
+                entityManager.getTransaction().rollback();
+            catalog.markModified();
             req.setAttribute("exceptionmessage", "A problem occured during transaction.");
         } finally {
-            //entityManager.close();
+            entityManager.close();
+        }
+    }
+    
+    /**
+     * Imports conversions from the "conversions.txt" file of the application,
+     * together with missing units, in a single batched transaction.
+     * 
+     * @param req receives the result message.
+     */
+    private void importConversions(HttpServletRequest req){
+        //Open the file
+        InputStream stream = getServletContext().getResourceAsStream("/WEB-INF/conversions.txt");
+        if(stream == null){
+            req.setAttribute("exceptionmessage", "Conversions file not found.");
+            return;
         }
         
-        //Show success message
-        req.setAttribute("exceptionmessage", "Unit succesfully deleted.");
+        //Read and store the whole file
+        CatalogService catalog = CatalogService.get(getServletContext());
+        try(Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)){
+            CatalogService.ImportResult result = catalog.importConversions(reader);
+            switch(result.result()){
+                case COMMITTED:
+                    if(result.imported() == 0)
+                        req.setAttribute("exceptionmessage", "All conversions from the file are already imported.");
+                    else if(result.skipped() > 0)
+                        req.setAttribute("exceptionmessage", result.imported() + " conversions succesfully imported, "
+                                                             + result.skipped() + " already imported conversions skipped.");
+                    else
+                        req.setAttribute("exceptionmessage", result.imported() + " conversions succesfully imported.");
+                    break;
+                case CONFLICT:
+                    req.setAttribute("exceptionmessage", "Conversions were added by another user during the import. Nothing was imported, try again.");
+                    break;
+                default:
+                    req.setAttribute("exceptionmessage", "A problem occured during transaction.");
+                    break;
+            }
+        }catch(InvalidConversionFileException e){
+            req.setAttribute("exceptionmessage", e.getMessage());
+        }catch(IOException e){
+            req.setAttribute("exceptionmessage", "Conversions file couldn't be read.");
+        }
     }
     
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException{
-        //Update database
-        loadDatabase();
+        //Update data (database is only queried if it has been modified)
+        CatalogService catalog = CatalogService.get(getServletContext());
+        catalog.refresh();
         //Get name of pressed button
         String name = request.getParameter("button");
         
-        //Perform requested action
+        //Perform requested action - committed changes are applied to the shared data
         if(name != null){
             switch(name){
             case "Add":
@@ -447,6 +484,12 @@ public class DataServlet extends HttpServlet {
             case "Delete":
                 deleteConversion(request);
                 break;
+            case "Metric":
+                addMetricUnit(request);
+                break;
+            case "Import":
+                importConversions(request);
+                break;
             case "Add unit":
                 addUnit(request);
                 break;
@@ -459,36 +502,40 @@ public class DataServlet extends HttpServlet {
             }
         }
         
-        //Load database after operation
-        loadDatabase();
-        
-        //Get application context
-        ServletContext context = getServletContext(); 
-
-        //Load containers from application context
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
-        List<Unit> unitList = (List<Unit>) context.getAttribute("unitList");
+        //Load database again only if a transaction failed
+        catalog.refresh();
                
-        String tableContent = "";     
-        for(Conversion conv : container){
-            tableContent += "<tr>";
-            
-            tableContent += "<td>" +conv.getOriginalUnit() + "</td>";
-            tableContent += "<td>" +conv.getTargetUnit() + "</td>";
-            tableContent += "<td>" +conv.getOperations() + "</td>";
-            
-            tableContent += "</tr>";
-        }
-        
-        String unitTableContent = "";   
-        for(Unit unit : unitList){
-            unitTableContent += "<tr>";
+        //Build tables in single buffers - each row is appended without copying previous rows
+        StringBuilder tableContent;
+        StringBuilder unitTableContent;
+        catalog.readLock().lock();
+        try{
+            ConversionContainer container = catalog.getContainer();
+            List<Unit> unitList = catalog.getUnitList();
             
-            unitTableContent += "<td>" + unit.getSymbol() + "</td>";
-            unitTableContent += "<td>" + unit.getFullName()+ "</td>";
-            unitTableContent += "<td>" + unit.getSystem() + "</td>";
+            tableContent = new StringBuilder(container.length() * 64);     
+            for(Conversion conv : container){
+                tableContent.append("<tr>");
+                
+                tableContent.append("<td>").append(conv.getOriginalUnit()).append("</td>");
+                tableContent.append("<td>").append(conv.getTargetUnit()).append("</td>");
+                conv.getOperations().appendTo(tableContent.append("<td>")).append("</td>");
+                
+                tableContent.append("</tr>");
+            }
             
-            unitTableContent += "</tr>";
+            unitTableContent = new StringBuilder(unitList.size() * 64);   
+            for(Unit unit : unitList){
+                unitTableContent.append("<tr>");
+                
+                unitTableContent.append("<td>").append(unit.getSymbol()).append("</td>");
+                unitTableContent.append("<td>").append(unit.getFullName()).append("</td>");
+                unitTableContent.append("<td>").append(unit.getSystem()).append("</td>");
+                
+                unitTableContent.append("</tr>");
+            }
+        }finally{
+            catalog.readLock().unlock();
         }
         
         Boolean sessionQueueEmpty = (Boolean) request.getSession().getAttribute("firstEntry");
@@ -511,8 +558,8 @@ public class DataServlet extends HttpServlet {
 
         request.getSession().setAttribute("firstEntry", sessionQueueEmpty);
         
-        request.setAttribute("tablecontent", tableContent);
-        request.setAttribute("unittablecontent", unitTableContent);
+        request.setAttribute("tablecontent", tableContent.toString());
+        request.setAttribute("unittablecontent", unitTableContent.toString());
         request.setAttribute("sessionresults", previousResults);
         
         RequestDispatcher view = request.getRequestDispatcher("/index.jsp");
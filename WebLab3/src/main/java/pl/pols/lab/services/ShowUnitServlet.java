@@ -1,8 +1,5 @@
 package pl.pols.lab.services;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceException;
-import jakarta.persistence.Query;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
@@ -12,46 +9,29 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import pl.polsl.lab.model.Conversion;
-import pl.polsl.lab.model.ConversionContainer;
-import pl.polsl.lab.model.Converter;
 import pl.polsl.lab.model.Unit;
+import pl.polsl.lab.model.ValueWithUnit;
         
 
 //http://localhost:8080/WebLab3/showunit
 
 /**
  * Displays a page with data associated with a given unit.
- * Shows the unit's symbol, name, measuring system and a list of direct conversions
- * available for it.
+ * Shows the unit's symbol, name, measuring system, a list of direct conversions
+ * available for it and a given value converted to every unit connected to it.
  * 
  * @author Kinga Adamczak
- * @version 1.0
+ * @version 1.1
  */
 public class ShowUnitServlet extends HttpServlet {
    
-    /**
-     * Get unit with a specified symbol from list of units
-     * 
-     * @param unitList selected list of units
-     * @param symbol searched for name
-     * @return Unit type object with the selected symbol, null if none found
-     */
-    private Unit getUnit(List<Unit> unitList, String symbol){
-        for(Unit u : unitList){
-            if(u.getSymbol().equals(symbol))
-                return u;
-        }
-        return null;
-    }
-    
     /**
      * Processes a user's request to show detailed information about an unit.
      * 
-     * @param request sends the symbol of searched for unit
-     * @param response returns the unit's symbol, name, measuring system and a list of direct conversions.
+     * @param request sends the symbol of searched for unit and an optional value (1 by default)
+     * @param response returns the unit's symbol, name, measuring system, a list of direct conversions
+     *                 and the value converted to every connected unit.
      * @throws ServletException
      * @throws IOException 
      */
@@ -63,6 +43,7 @@ public class ShowUnitServlet extends HttpServlet {
         
         //Get user input
         String selectedUnit = request.getParameter("showunit");
+        String selectedValue = request.getParameter("showvalue");
         
         //If no units selected, return with a message
         if(selectedUnit == null || selectedUnit.equals("")){
@@ -77,17 +58,14 @@ public class ShowUnitServlet extends HttpServlet {
         httpSession.setAttribute("symbol", "");
         httpSession.setAttribute("name", "");
         httpSession.setAttribute("system", "");
+        request.setAttribute("showunitvaluelabel", "");
         
-        //Get current data
-        loadDatabase();
-        
-        //Load data to containers and create a converter
-        ConversionContainer container = (ConversionContainer) context.getAttribute("conversionContainer");
-        Converter converter = new Converter(container);
-        List<Unit> units = (List<Unit>) context.getAttribute("unitList");
+        //Get current data (database is only queried if it has been modified)
+        CatalogService catalog = CatalogService.get(context);
+        catalog.refresh();
         
-        //Get unit with specified name from unit list
-        Unit unit = getUnit(units, selectedUnit);
+        //Get unit with specified name
+        Unit unit = catalog.getUnit(selectedUnit);
         
         //If unit with this name didn't exist, return with a message
         if(unit == null){
@@ -102,68 +80,55 @@ public class ShowUnitServlet extends HttpServlet {
         httpSession.setAttribute("name", unit.getFullName());
         httpSession.setAttribute("system", unit.getSystem());
         
-        //Search for direct conversions for the given unit
-        ArrayList<String> excludedUnits = new ArrayList();
-        ArrayList<String> foundUnits = container.findAllDirectConversions(selectedUnit, excludedUnits);
+        //Get value to convert, 1 if not specified
+        double value = 1;
+        try{
+            if(selectedValue != null && !selectedValue.equals(""))
+                value = Double.parseDouble(selectedValue);
+        }catch(NumberFormatException e){
+            httpSession.setAttribute("exception", "Wrong number format, showing values for 1 " + selectedUnit + ".");
+        }
+        ValueWithUnit input = new ValueWithUnit(value, selectedUnit);
+        
+        //Search for direct conversions and convert the value to every connected unit in a single search
+        ArrayList<String> foundUnits;
+        ArrayList<ValueWithUnit> results;
+        catalog.readLock().lock();
+        try{
+            foundUnits = catalog.getContainer().findAllDirectConversions(selectedUnit, new ArrayList<>());
+            results = catalog.getConverter().convertToAll(input);
+        }finally{
+            catalog.readLock().unlock();
+        }
         
         //Display direct conversions in a table
-        String tableContent = "";
+        StringBuilder tableContent = new StringBuilder();
         for(String foundUnit : foundUnits){
-            tableContent += "<tr>";       
-            tableContent += "<td>" + foundUnit + "</td>";           
-            tableContent += "</tr>";
+            tableContent.append("<tr>");       
+            tableContent.append("<td>").append(foundUnit).append("</td>");           
+            tableContent.append("</tr>");
         }
         
         //Save table content
-        request.setAttribute("showunittablecontent", tableContent);   
+        request.setAttribute("showunittablecontent", tableContent.toString());   
+        
+        //Display converted values in a table
+        StringBuilder valueTableContent = new StringBuilder(results.size() * 32);
+        for(ValueWithUnit result : results){
+            valueTableContent.append("<tr>");       
+            result.appendTo(valueTableContent.append("<td>")).append("</td>");           
+            valueTableContent.append("</tr>");
+        }
+        
+        //Save value table content
+        request.setAttribute("showunitvaluelabel", input.toString() + " equals:");
+        request.setAttribute("showunitvaluetablecontent", valueTableContent.toString());
         
         //Return succesfully
         RequestDispatcher view = request.getRequestDispatcher("/showunit.jsp");
         view.forward(request,response);
     }
     
-    /**
-     * Loads current state of database into application context.
-     * Saved data is stored in "conversionContainer" and "unitList".
-     */
-    void loadDatabase()
-    {
-        //Get entity manager from application context
-        ServletContext context = getServletContext();        
-        EntityManager entityManager = (EntityManager) context.getAttribute("manager");
-        
-        //Create new empty containers
-        ConversionContainer container = new ConversionContainer();
-        List<Unit> unitList = Collections.emptyList();
-        
-        entityManager.getTransaction().begin();
-        //Load data from database to containers
-        try {
-            Query query = entityManager.createQuery("SELECT u FROM Unit u");
-            unitList = query.getResultList();
-            
-            query = entityManager.createQuery("SELECT c FROM Conversion c");
-            List<Conversion> conversions = query.getResultList();
-            for(Conversion c : conversions){
-                container.add(c);
-            }
-            
-            entityManager.getTransaction().commit();
-            context.setAttribute("databasetablemessage", "Data in tables comes from database.");    
-        } catch (PersistenceException e) {
-            //If exception occured - make loaded containers empty
-            container = new ConversionContainer();
-            unitList = Collections.emptyList();
-                     
-            entityManager.getTransaction().rollback();
-            context.setAttribute("databasetablemessage", "Database not connected.");
-            context.setAttribute("conversionresult", "Database not connected.");        
-        } finally {           
-            //Save containers (even empty ones) into application context
-            context.setAttribute("unitList", unitList);          
-            context.setAttribute("conversionContainer", container);          
-        }       
-    }
 
     
     @Override
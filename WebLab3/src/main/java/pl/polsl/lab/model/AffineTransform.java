@@ -0,0 +1,95 @@
+package pl.polsl.lab.model;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Record storing an operation sequence reduced to the form y = scale * x + offset.
+ * Every operation (+ - * /) with a constant operand is affine, so any operation
+ * sequence, and any chain of sequences, can be folded into a single transform.
+ *
+ * @param scale value multiplying the converted value.
+ * @param offset value added after multiplication.
+ */
+public record AffineTransform (double scale, double offset){
+    /** Transform that doesn't change the converted value.*/
+    public static final AffineTransform IDENTITY = new AffineTransform(1, 0);
+
+    /**
+     * Folds an operation sequence into a single transform.
+     *
+     * @param operations folded sequence.
+     * @return transform giving the same result as applying operations one after another.
+     */
+    public static AffineTransform of(OperationSequence operations){
+        return operations.fold();
+    }
+
+    /**
+     * Returns value transformed by the record.
+     *
+     * @param value original value.
+     * @return scale * value + offset.
+     */
+    public double apply(double value){
+        return Math.fma(scale, value, offset);
+    }
+
+    /**
+     * Transforms values from the source array and writes results to the destination array.
+     * Both arrays may be the same array.
+     *
+     * @param source original values.
+     * @param destination array receiving transformed values, at least as long as source.
+     */
+    public void apply(double[] source, double[] destination){
+        if(destination.length < source.length)
+            throw new IllegalArgumentException("Destination array is shorter than the source array.");
+        
+        double a = scale;
+        double b = offset;
+        for(int i = 0; i < source.length; i++){
+            destination[i] = Math.fma(a, source[i], b);
+        }
+    }
+
+    /**
+     * Transforms remaining values of the buffer (from its position to its limit) in place.
+     * Position and limit of the buffer aren't changed.
+     *
+     * @param values buffer with original values, receiving transformed values.
+     */
+    public void apply(DoubleBuffer values){
+        double a = scale;
+        double b = offset;
+        if(values.hasArray()){
+            double[] array = values.array();
+            int end = values.arrayOffset() + values.limit();
+            for(int i = values.arrayOffset() + values.position(); i < end; i++){
+                array[i] = Math.fma(a, array[i], b);
+            }
+        } else {
+            for(int i = values.position(); i < values.limit(); i++){
+                values.put(i, Math.fma(a, values.get(i), b));
+            }
+        }
+    }
+
+    /**
+     * Returns transform equal to applying this transform and then the next one.
+     *
+     * @param next transform applied second.
+     * @return composed transform.
+     */
+    public AffineTransform then(AffineTransform next){
+        return new AffineTransform(next.scale * scale, Math.fma(next.scale, offset, next.offset));
+    }
+
+    /**
+     * Returns transform reversing this one.
+     *
+     * @return inverse transform.
+     */
+    public AffineTransform inverse(){
+        return new AffineTransform(1 / scale, -offset / scale);
+    }
+}
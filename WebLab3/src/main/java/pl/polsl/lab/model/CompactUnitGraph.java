@@ -0,0 +1,180 @@
+package pl.polsl.lab.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Read-only snapshot of the conversion graph stored in a ConversionContainer.
+ * Unit symbols are encoded as consecutive integer IDs and edges are stored
+ * in a compressed sparse row layout: neighbors of unit i are
+ * targets[offsets[i]] ... targets[offsets[i + 1] - 1].
+ * Breadth-first searches run over primitive arrays that are reused between searches.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+final class CompactUnitGraph {
+    /** Unit symbols mapped to their IDs.*/
+    private final HashMap<String, Integer> ids;
+    /** Unit symbols indexed by their IDs.*/
+    private final String[] symbols;
+    /** Start of every unit's neighbor range in targets (with an extra end marker).*/
+    private final int[] offsets;
+    /** Neighbor IDs of all units, grouped by unit.*/
+    private final int[] targets;
+    /** Version of the container the graph was built from.*/
+    private final long version;
+
+    /** Search buffer - ID of the unit that led to a given unit.*/
+    private final int[] parent;
+    /** Search buffer - number of the search in which a given unit was last visited.*/
+    private final int[] visitedIn;
+    /** Search buffer - queue of units to be expanded.*/
+    private final int[] queue;
+    /** Number of the current search, used instead of clearing visitedIn.*/
+    private int searchNumber;
+
+    /**
+     * Builds the graph from current contents of the container.
+     * Neighbors of every unit keep the order their conversions have in the container.
+     *
+     * @param container source of conversions.
+     */
+    CompactUnitGraph(ConversionContainer container){
+        ArrayList<Conversion> conversions = container.getData();
+        int edgeCount = conversions.size();
+
+        ids = new HashMap<>();
+        ArrayList<String> symbolList = new ArrayList<>();
+        int[] edgeEnds = new int[2 * edgeCount];
+        for(int i = 0; i < edgeCount; i++){
+            Conversion c = conversions.get(i);
+            edgeEnds[2 * i] = encode(c.getOriginalUnit(), symbolList);
+            edgeEnds[2 * i + 1] = encode(c.getTargetUnit(), symbolList);
+        }
+
+        int unitCount = symbolList.size();
+        symbols = symbolList.toArray(new String[unitCount]);
+        offsets = new int[unitCount + 1];
+        targets = new int[2 * edgeCount];
+
+        for(int end : edgeEnds){
+            offsets[end + 1]++;
+        }
+        for(int i = 0; i < unitCount; i++){
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] fill = new int[unitCount];
+        for(int i = 0; i < edgeCount; i++){
+            int unit1 = edgeEnds[2 * i];
+            int unit2 = edgeEnds[2 * i + 1];
+            targets[offsets[unit1] + fill[unit1]++] = unit2;
+            targets[offsets[unit2] + fill[unit2]++] = unit1;
+        }
+
+        version = container.getVersion();
+        parent = new int[unitCount];
+        visitedIn = new int[unitCount];
+        queue = new int[unitCount];
+    }
+
+    /**
+     * Returns ID of a unit, assigning the next free ID if the unit is new.
+     *
+     * @param symbol unit symbol.
+     * @param symbolList symbols that already have IDs.
+     * @return ID of the unit.
+     */
+    private int encode(String symbol, ArrayList<String> symbolList){
+        Integer id = ids.get(symbol);
+        if(id == null){
+            id = symbolList.size();
+            ids.put(symbol, id);
+            symbolList.add(symbol);
+        }
+        return id;
+    }
+
+    /**
+     * Returns version of the container the graph was built from.
+     *
+     * @return container version.
+     */
+    long getVersion(){
+        return version;
+    }
+
+    /**
+     * Finds the shortest (in number of conversions) path between two units
+     * using a breadth-first search.
+     *
+     * @param startUnit original unit.
+     * @param endUnit target unit.
+     * @return ArrayList containing ordered units whose conversions
+     *         ultimately lead to the endUnit. Null if such a path doesn't exist.
+     */
+    synchronized ArrayList<String> findPath(String startUnit, String endUnit){
+        Integer startId = ids.get(startUnit);
+        Integer endId = ids.get(endUnit);
+        if(startId == null || endId == null || startId.equals(endId))
+            return null;
+        int start = startId;
+        int end = endId;
+
+        int search = nextSearchNumber();
+        int head = 0;
+        int tail = 0;
+        visitedIn[start] = search;
+        queue[tail++] = start;
+
+        while(head < tail){
+            int current = queue[head++];
+            for(int i = offsets[current]; i < offsets[current + 1]; i++){
+                int child = targets[i];
+                if(visitedIn[child] == search)
+                    continue;
+                visitedIn[child] = search;
+                parent[child] = current;
+                if(child == end)
+                    return createPath(start, end);
+                queue[tail++] = child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a number identifying a new search. Visit markers are
+     * cleared only when the counter overflows.
+     *
+     * @return number of the new search.
+     */
+    private int nextSearchNumber(){
+        if(++searchNumber == Integer.MAX_VALUE){
+            Arrays.fill(visitedIn, 0);
+            searchNumber = 1;
+        }
+        return searchNumber;
+    }
+
+    /**
+     * Creates a path from start to end using the parent buffer
+     * filled out by the last search.
+     *
+     * @param start ID of original unit.
+     * @param end ID of target unit.
+     * @return ArrayList containing ordered unit symbols from start to end.
+     */
+    private ArrayList<String> createPath(int start, int end){
+        ArrayList<String> path = new ArrayList<>();
+        for(int unit = end; unit != start; unit = parent[unit]){
+            path.add(symbols[unit]);
+        }
+        path.add(symbols[start]);
+        Collections.reverse(path);
+        return path;
+    }
+}
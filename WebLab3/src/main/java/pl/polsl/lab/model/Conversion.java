@@ -7,14 +7,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Class defining a conversion between one unit to another.
+ * Conversions are immutable, so they can be shared without copying.
  *
- * @version 2.0
+ * @version 3.0
  * @author Kinga Adamczak
  */
 @Entity
@@ -31,7 +33,7 @@ public class Conversion implements Serializable {
     /** Operation sequence needed to transform a value measured with originalUnit
         to a value measured in targetUnit. */
     @Convert(converter = OperationSequenceConverter.class)
-    private OperationSequence operations;
+    private final OperationSequence operations;
     
     /**
      * Default constructor - generates a random ID for unit symbols
@@ -70,15 +72,15 @@ public class Conversion implements Serializable {
     }
     
     /**
-     * Copy constructor making a deep copy of the passed
-     * Conversion type object.
+     * Copy constructor. As conversions are immutable, the copy shares
+     * the operation sequence with the passed Conversion type object.
      * 
      * @param c Conversion type object to be copied.
      */
     public Conversion(Conversion c){
         this.originalUnit = c.getOriginalUnit();
         this.targetUnit = c.getTargetUnit();
-        this.operations = new OperationSequence(c.operations);  
+        this.operations = c.operations;  
     }
     
     /**
@@ -100,13 +102,12 @@ public class Conversion implements Serializable {
     } 
     
     /**
-     * Gets copy of the "operations" attribute.
+     * Gets the "operations" attribute.
      * 
-     * @return copy of the "operations" attribute.
+     * @return the "operations" attribute (immutable).
      */
     public OperationSequence getOperations(){
-        OperationSequence seq = new OperationSequence(this.operations);
-        return seq;
+        return operations;
     }
     
     /**
@@ -119,26 +120,28 @@ public class Conversion implements Serializable {
      * @return numeric floating-point value measured in targetUnit.
      */
     public double calculate(double originalValue){
-        double result = originalValue;
-        for(Operation o : operations){
-            double newValue = o.value();
-            switch(o.operator()){
-                case '+' -> result += newValue;
-                case '-' -> result -= newValue;
-                case '*' -> result *= newValue;
-                case '/' -> result /= newValue;
-                default -> throw new IllegalArgumentException();
-            }
-        }
-        return result;
+        return operations.calculate(originalValue);
     }
     
     /**
-     * Fills the "operations" attribute with reversed order of operations
-     * and inverted mathematical operators.
+     * Returns the operation sequence folded into a single transform.
+     * 
+     * @return transform converting a value measured in originalUnit
+     *         to a value measured in targetUnit.
      */
-    public void invertOperationSequence(){
-        operations.invert();
+    public AffineTransform compile(){
+        return AffineTransform.of(operations);
+    }
+    
+    /**
+     * Returns conversion in the opposite direction - from targetUnit to originalUnit,
+     * with reversed order of operations and inverted mathematical operators.
+     * This conversion isn't changed.
+     * 
+     * @return inverted conversion.
+     */
+    public Conversion inverted(){
+        return new Conversion(targetUnit, originalUnit, operations.invert());
     }  
     
     /**
@@ -149,7 +152,30 @@ public class Conversion implements Serializable {
      */
     @Override
     public String toString(){
-        return originalUnit + " " + targetUnit + " " + operations.toString();
+        return appendTo(new StringBuilder(32)).toString();
+    }
+    
+    /**
+     * Appends original unit, target unit and operation sequence separated by spaces.
+     * 
+     * @param builder StringBuilder receiving the text.
+     * @return the passed StringBuilder.
+     */
+    public StringBuilder appendTo(StringBuilder builder){
+        builder.append(originalUnit).append(' ').append(targetUnit).append(' ');
+        return operations.appendTo(builder);
+    }
+    
+    /**
+     * Appends original unit, target unit and operation sequence separated by spaces.
+     * 
+     * @param out Appendable receiving the text.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    public Appendable appendTo(Appendable out) throws IOException{
+        out.append(originalUnit).append(' ').append(targetUnit).append(' ');
+        return operations.appendTo(out);
     }
     
     /**
@@ -215,7 +241,7 @@ public class Conversion implements Serializable {
                 return false;
             if(!targetUnit.equals(conv.getTargetUnit()))
                 return false;
-            if(!operations.equals(conv.getOperations()))
+            if(!operations.equals(conv.operations))
                 return false;
                     
             return true;
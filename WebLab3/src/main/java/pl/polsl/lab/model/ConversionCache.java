@@ -0,0 +1,170 @@
+package pl.polsl.lab.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class storing transforms created by the Converter class for pairs of units,
+ * so that repeated conversions between the same units don't have to search
+ * for a path again. The cache has a limited capacity - when it is full, an entry
+ * chosen by the eviction policy is removed. All entries are discarded when
+ * the container they were created from is modified.
+ * 
+ * Methods are synchronized, so the cache can be shared by threads using the same Converter.
+ * 
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class ConversionCache {
+    
+    /**
+     * Enum listing ways of choosing the entry removed from a full cache.
+     */
+    public enum EvictionPolicy {
+        /** Removes the entry that wasn't read or added for the longest time.*/
+        LEAST_RECENTLY_USED,
+        /** Removes the entry that was added first, regardless of how often it's read.*/
+        OLDEST_FIRST
+    }
+    
+    /** Default maximum number of stored transforms.*/
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /** Maximum number of stored transforms.*/
+    private final int capacity;
+    /** Policy used to choose removed entries.*/
+    private final EvictionPolicy policy;
+    /** Transforms mapped to the (original unit, target unit) pair they convert between.*/
+    private final LinkedHashMap<ConversionID, AffineTransform> data;
+    /** Version of the container that stored transforms were created from.*/
+    private long containerVersion;
+    /** Number of searches that found a stored transform.*/
+    private long hits;
+    /** Number of searches that didn't find a stored transform.*/
+    private long misses;
+    
+    /**
+     * Constructor creating a least recently used cache of default capacity.
+     */
+    public ConversionCache(){
+        this(DEFAULT_CAPACITY, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+    
+    /**
+     * Constructor setting capacity and eviction policy of the cache.
+     * 
+     * @param maxSize maximum number of stored transforms, 0 disables caching.
+     * @param evictionPolicy policy used to choose removed entries.
+     */
+    public ConversionCache(int maxSize, EvictionPolicy evictionPolicy){
+        if(maxSize < 0)
+            throw new IllegalArgumentException("Cache capacity can't be negative.");
+        
+        this.capacity = maxSize;
+        this.policy = evictionPolicy;
+        boolean accessOrder = (evictionPolicy == EvictionPolicy.LEAST_RECENTLY_USED);
+        this.data = new LinkedHashMap<>(16, 0.75f, accessOrder){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ConversionID, AffineTransform> eldest){
+                return size() > capacity;
+            }
+        };
+    }
+    
+    /**
+     * Returns stored transform converting values from originalUnit to targetUnit.
+     * If the container has been modified since the transforms were stored, all of them are discarded first.
+     * 
+     * @param originalUnit original unit.
+     * @param targetUnit target unit.
+     * @param version current version of the container.
+     * @return stored transform, null if there isn't one.
+     */
+    public synchronized AffineTransform get(String originalUnit, String targetUnit, long version){
+        invalidateIfOutdated(version);
+        AffineTransform transform = data.get(new ConversionID(originalUnit, targetUnit));
+        if(transform == null)
+            misses++;
+        else
+            hits++;
+        return transform;
+    }
+    
+    /**
+     * Stores transform converting values from originalUnit to targetUnit.
+     * 
+     * @param originalUnit original unit.
+     * @param targetUnit target unit.
+     * @param version version of the container the transform was created from.
+     * @param transform stored transform.
+     */
+    public synchronized void put(String originalUnit, String targetUnit, long version, AffineTransform transform){
+        invalidateIfOutdated(version);
+        if(capacity > 0)
+            data.put(new ConversionID(originalUnit, targetUnit), transform);
+    }
+    
+    /**
+     * Discards all stored transforms if they were created from a different version of the container.
+     * 
+     * @param version current version of the container.
+     */
+    private void invalidateIfOutdated(long version){
+        if(version != containerVersion){
+            data.clear();
+            containerVersion = version;
+        }
+    }
+    
+    /**
+     * Discards all stored transforms. Hit and miss counters are kept.
+     */
+    public synchronized void clear(){
+        data.clear();
+    }
+    
+    /**
+     * Returns number of stored transforms.
+     * 
+     * @return number of stored transforms.
+     */
+    public synchronized int size(){
+        return data.size();
+    }
+    
+    /**
+     * Returns maximum number of stored transforms.
+     * 
+     * @return cache capacity.
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+    
+    /**
+     * Returns policy used to choose removed entries.
+     * 
+     * @return eviction policy.
+     */
+    public EvictionPolicy getEvictionPolicy(){
+        return policy;
+    }
+    
+    /**
+     * Returns number of searches that found a stored transform.
+     * 
+     * @return number of cache hits.
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+    
+    /**
+     * Returns number of searches that didn't find a stored transform.
+     * 
+     * @return number of cache misses.
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+}
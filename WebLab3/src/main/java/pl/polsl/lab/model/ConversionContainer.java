@@ -1,26 +1,56 @@
 package pl.polsl.lab.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Class storing Conversion class instances in a form of an ArrayList.
+ * Conversions are additionally indexed by their (unordered) pair of units
+ * and by unit (adjacency lists of the conversion graph), so searching
+ * for a conversion or for the neighbors of a unit doesn't require a linear scan.
+ * Deleting a conversion moves the last conversion into its place, so deletions
+ * take constant time but don't keep the order of the remaining conversions.
  * 
- * @version 2.0
+ * @version 2.7
  * @author Kinga Adamczak
  */
 public class ConversionContainer implements Iterable<Conversion>{
     /** ArrayList of conversions defined in the program.*/
     private final ArrayList<Conversion> data;
+    /** Positions of conversions in the data ArrayList mapped to the pair of units they connect.*/
+    private final HashMap<UnitPair, Integer> pairIndex;
+    /** Units mapped to their directly connected units and the edges (conversions compiled
+        in both directions) connecting them. Neighbors are kept in the order their conversions were added.*/
+    private final HashMap<String, LinkedHashMap<String, ConversionEdge>> adjacency;
+    /** Connected components of the conversion graph. When a conversion is deleted,
+        only the component it belonged to is regrouped.*/
+    private final UnitComponents components;
+    /** Transforms from every unit to the root unit of its component.*/
+    private final UnitPotentials potentials;
+    /** Base metric units whose prefixed versions are resolved without stored conversions.*/
+    private final MetricPrefixResolver metricUnits;
+    /** Number of modifications made to the container, used by structures derived from it.*/
+    private long version;
     
     /**
-     * Constructor initializing data ArrayList.
+     * Constructor initializing data ArrayList and its indexes.
      */
     public ConversionContainer(){
         data = new ArrayList<>();
+        pairIndex = new HashMap<>();
+        adjacency = new HashMap<>();
+        components = new UnitComponents();
+        potentials = new UnitPotentials(this);
+        metricUnits = new MetricPrefixResolver();
     }
     
     /**
@@ -33,17 +63,31 @@ public class ConversionContainer implements Iterable<Conversion>{
     }
     
     /**
-     * Returns clone of Conversion type object corresponding to entered index.
+     * Returns number of modifications (additions, deletions, clearing) made to the container.
+     * Structures built from the container's contents can compare it to find out
+     * if they are outdated.
+     * 
+     * @return current version of the container's contents.
+     */
+    public long getVersion(){
+        return version;
+    }
+    
+    /**
+     * Returns Conversion type object corresponding to entered index.
+     * Conversions are immutable, so the stored object is returned without copying.
      * 
      * @param index entered index.
-     * @return clone of Conversion type object corresponding to entered index.
+     * @return Conversion type object corresponding to entered index.
      */
     public Conversion get(int index){
-        return new Conversion(data.get(index));
+        return data.get(index);
     }  
     
     /**
      * Returns reference to container's data.
+     * The returned list should only be read - modifying it directly
+     * bypasses the indexes.
      * 
      * @return reference to container's data.
      */
@@ -68,22 +112,20 @@ public class ConversionContainer implements Iterable<Conversion>{
 //    }
     
     /**
-     * Gets a deep copy of a conversion between specified
-     * unit records. Order of units doesn't matter.
+     * Gets a conversion between specified unit records. Order of units doesn't matter.
+     * Conversions are immutable, so the stored object is returned without copying.
      * 
      * @param unit1 first unit record.
      * @param unit2 second unit record.
-     * @return copy of a Conversion type object containing unit1 and unit2.
+     * @return Conversion type object containing unit1 and unit2.
      *         Returns null if no such object is found.
      */
     public Conversion returnConversion(String unit1, String unit2){
         if(unit1.equals(unit2))
             throw new IllegalArgumentException("Searched for a conversion between the same unit.");
         
-        for(Conversion c : data){
-            if(c.includesUnits(unit1, unit2)) return new Conversion(c);
-        }
-        return null;
+        Integer index = pairIndex.get(UnitPair.of(unit1, unit2));
+        return index == null ? null : data.get(index);
     }
     
 //    /**
@@ -113,11 +155,25 @@ public class ConversionContainer implements Iterable<Conversion>{
         if(unit1.equals(unit2))
             throw new IllegalArgumentException("Searched for a conversion between the same unit.");
         
-        for(int i = 0; i < data.size(); i++){
-            if(data.get(i).includesUnits(unit1, unit2))
-                return i;
+        Integer index = pairIndex.get(UnitPair.of(unit1, unit2));
+        return index == null ? -1 : index;
+    }
+    
+    /**
+     * Removes a conversion from data by moving the last conversion into its place,
+     * so no other elements have to be shifted.
+     * 
+     * @param index position of the removed conversion.
+     * @return removed conversion.
+     */
+    private Conversion removeAt(int index){
+        Conversion removed = data.get(index);
+        Conversion last = data.remove(data.size() - 1);
+        if(index < data.size()){
+            data.set(index, last);
+            pairIndex.put(UnitPair.of(last), index);
         }
-        return -1;
+        return removed;
     }
 //    
 //    /**
@@ -143,9 +199,10 @@ public class ConversionContainer implements Iterable<Conversion>{
      * @return true if conversion exists.
      */
     public Boolean exists(String unit1, String unit2){
-        if(findIndexOf(unit1, unit2) == -1)
-            return false;
-        return true;
+        if(unit1.equals(unit2))
+            throw new IllegalArgumentException("Searched for a conversion between the same unit.");
+        
+        return pairIndex.containsKey(UnitPair.of(unit1, unit2));
     }
     
     /**
@@ -160,11 +217,105 @@ public class ConversionContainer implements Iterable<Conversion>{
     public boolean add(Conversion newConversion){
         String unit1 = newConversion.getOriginalUnit();
         String unit2 = newConversion.getTargetUnit();
+        if(unit1.equals(unit2))
+            throw new IllegalArgumentException("Searched for a conversion between the same unit.");
 
-        if(findIndexOf(unit1, unit2) == -1)
-            return data.add(newConversion);
-        else
+        if(pairIndex.putIfAbsent(UnitPair.of(unit1, unit2), data.size()) != null)
             return false;
+        link(newConversion);
+        components.union(unit1, unit2);
+        potentials.added(newConversion);
+        version++;
+        return data.add(newConversion);
+    }
+    
+    /**
+     * Adds all conversions between units that aren't connected yet, in a single pass.
+     * Duplicates are found by hashing the unordered pairs of units, both among stored
+     * conversions and within the passed collection (the first conversion of a pair wins).
+     * When many conversions are added at once (at least as many as are already stored),
+     * components and potentials are built once at the end instead of after every conversion.
+     * 
+     * @param conversions Conversion type objects to be added to data.
+     * @return conversions that weren't added because their pair of units was already connected,
+     *         in the order they were passed.
+     */
+    public List<Conversion> addAll(Collection<Conversion> conversions){
+        if(conversions == null)
+            throw new IllegalArgumentException("Added collection was null.");
+        for(Conversion c : conversions){
+            if(c.getOriginalUnit().equals(c.getTargetUnit()))
+                throw new IllegalArgumentException("Searched for a conversion between the same unit.");
+        }
+        
+        ArrayList<Conversion> accepted = new ArrayList<>(conversions.size());
+        ArrayList<Conversion> rejected = new ArrayList<>();
+        for(Conversion c : conversions){
+            if(pairIndex.putIfAbsent(UnitPair.of(c), data.size() + accepted.size()) == null)
+                accepted.add(c);
+            else
+                rejected.add(c);
+        }
+        if(accepted.isEmpty())
+            return rejected;
+        
+        boolean rebuild = accepted.size() >= data.size();
+        data.addAll(accepted);
+        if(rebuild){
+            for(Conversion c : accepted){
+                link(c);
+            }
+            rebuildComponents();
+            potentials.rebuild(adjacency.keySet());
+        } else {
+            //Each conversion is linked only before its own update, as in add(Conversion),
+            //so traversals of the spanning tree don't follow conversions that aren't merged yet
+            for(Conversion c : accepted){
+                link(c);
+                components.union(c.getOriginalUnit(), c.getTargetUnit());
+                potentials.added(c);
+            }
+        }
+        version++;
+        return rejected;
+    }
+    
+    /**
+     * Adds a conversion to the adjacency lists of both of its units,
+     * compiling it in both directions.
+     * 
+     * @param c added conversion.
+     */
+    private void link(Conversion c){
+        String unit1 = c.getOriginalUnit();
+        String unit2 = c.getTargetUnit();
+        ConversionEdge edge = ConversionEdge.of(c);
+        adjacency.computeIfAbsent(unit1, u -> new LinkedHashMap<>()).put(unit2, edge);
+        adjacency.computeIfAbsent(unit2, u -> new LinkedHashMap<>()).put(unit1, edge);
+    }
+    
+    /**
+     * Removes a conversion from the adjacency lists of both of its units.
+     * Units left without any conversions are removed from the adjacency map.
+     * 
+     * @param c removed conversion.
+     */
+    private void unlink(Conversion c){
+        unlink(c.getOriginalUnit(), c.getTargetUnit());
+        unlink(c.getTargetUnit(), c.getOriginalUnit());
+    }
+    
+    /**
+     * Removes a neighbor from the adjacency list of a unit.
+     * 
+     * @param unit unit whose adjacency list is modified.
+     * @param neighbor removed neighbor.
+     */
+    private void unlink(String unit, String neighbor){
+        LinkedHashMap<String, ConversionEdge> neighbors = adjacency.get(unit);
+        neighbors.remove(neighbor);
+        if(neighbors.isEmpty())
+            adjacency.remove(unit);
     }
     
 //    /**
@@ -192,7 +343,18 @@ public class ConversionContainer implements Iterable<Conversion>{
      * @return true if object existed in the array and got deleted.
      */
     public boolean delete(Conversion conv){
-        return data.remove(conv);
+        UnitPair key = UnitPair.of(conv);
+        Integer index = pairIndex.get(key);
+        if(index == null || !data.get(index).equals(conv))
+            return false;
+        
+        pairIndex.remove(key);
+        Conversion stored = removeAt(index);
+        unlink(stored);
+        if(potentials.deleted(stored))
+            splitComponent(stored);
+        version++;
+        return true;
     }
     
     /**
@@ -200,6 +362,12 @@ public class ConversionContainer implements Iterable<Conversion>{
      */
     public void clear(){
         this.data.clear();
+        this.pairIndex.clear();
+        this.adjacency.clear();
+        this.components.clear();
+        this.potentials.clear();
+        this.metricUnits.clear();
+        this.version++;
     }
     
     /**
@@ -216,9 +384,13 @@ public class ConversionContainer implements Iterable<Conversion>{
         if(unit1.equals(unit2))
             throw new IllegalArgumentException("Searched for a conversion between the same unit.");
         
-        int index = this.findIndexOf(unit1, unit2);
-        if(index == -1) return false;
-        data.remove(index);
+        Integer index = pairIndex.remove(UnitPair.of(unit1, unit2));
+        if(index == null) return false;
+        Conversion stored = removeAt(index);
+        unlink(stored);
+        if(potentials.deleted(stored))
+            splitComponent(stored);
+        version++;
         return true;
     }
     
@@ -230,41 +402,81 @@ public class ConversionContainer implements Iterable<Conversion>{
      *         (units that consist only of letters of a prefix, for example "m", are allowed).
      */
     private boolean checkIfNoPrefix(Unit unit){
-        NoPrefixUnitFormat format = new NoPrefixUnitFormat();
-        Pattern regex = format.getNoPrefixRegex();
-        Matcher matcher = regex.matcher(unit.getSymbol());
-        return matcher.matches();
+        return MetricPrefixTrie.getInstance().isNoPrefixUnit(unit.getSymbol());
     }
     
     /**
-     * Creates all missing conversions between a base metric unit passed as string
-     * and its prefixed versions.
+     * Registers a base metric unit. Its prefixed versions (for example "km" for "m")
+     * are resolved by the Converter when a conversion is requested,
+     * without storing any conversions. Stored units take precedence over resolved ones.
      * 
-     * @param baseUnitName base metric unit name.
+     * @param baseUnit base metric unit name.
+     * @return true if the unit was registered, false if it was already registered
+     *         or it begins with a metric prefix.
      */
-    public void addMetricConversions(String baseUnitName){
-        Unit baseUnit = new Unit(baseUnitName);
-        addMetricConversions(baseUnit);
+    public boolean addMetricUnit(String baseUnit){
+        if(!checkIfNoPrefix(new Unit(baseUnit)) || !metricUnits.add(baseUnit))
+            return false;
+        version++;
+        return true;
     }
     
     /**
-     * Creates all missing conversions between a base metric unit record
-     * and its prefixed versions.
+     * Unregisters a base metric unit, so its prefixed versions aren't resolved anymore.
      * 
-     * @param baseUnit base metric unit record.
+     * @param baseUnit base metric unit name.
+     * @return true if the unit was registered.
      */
-    public void addMetricConversions(Unit baseUnit){
-        if(!checkIfNoPrefix(baseUnit))
-            throw new IllegalArgumentException("Tried to create metric conversions for an already prefixed unit.");
-        
-        MetricPrefixesMap metricPrefixes = new MetricPrefixesMap(); 
+    public boolean removeMetricUnit(String baseUnit){
+        if(!metricUnits.remove(baseUnit))
+            return false;
+        version++;
+        return true;
+    }
+    
+    /**
+     * Checks if a unit has been registered as a base metric unit.
+     * 
+     * @param baseUnit unit name.
+     * @return true if prefixed versions of the unit are resolved.
+     */
+    public boolean isMetricUnit(String baseUnit){
+        return metricUnits.contains(baseUnit);
+    }
+    
+    /**
+     * Resolves a unit that isn't included in any stored conversion
+     * as a prefixed version of a registered base metric unit.
+     * 
+     * @param unit unit name.
+     * @return base unit with transforms to and from it, null if the unit
+     *         is stored or isn't a prefixed base metric unit.
+     */
+    MetricPrefixResolver.PrefixedUnit resolvePrefixedUnit(String unit){
+        if(containsUnit(unit))
+            return null;
+        return metricUnits.resolve(unit);
+    }
+    
+    /**
+     * Returns prefixed versions of a registered base metric unit that are resolved
+     * to it (they aren't stored and can't be split into a different registered base unit).
+     * 
+     * @param baseUnit base metric unit name.
+     * @return prefixed unit names mapped to their resolved form, empty if the unit isn't registered.
+     */
+    Map<String, MetricPrefixResolver.PrefixedUnit> getPrefixedUnits(String baseUnit){
+        if(!metricUnits.contains(baseUnit))
+            return Collections.emptyMap();
         
-        for(String prefix : metricPrefixes.keySet()){
-            String prefixedUnit = prefix + baseUnit.getSymbol();
-            String operation = metricPrefixes.returnMultiplier(prefix);
-            Conversion c = new Conversion(baseUnit.getSymbol(), prefixedUnit, operation);
-            add(c);
+        LinkedHashMap<String, MetricPrefixResolver.PrefixedUnit> result = new LinkedHashMap<>();
+        for(String prefix : MetricPrefixResolver.prefixes()){
+            String prefixedUnit = prefix + baseUnit;
+            MetricPrefixResolver.PrefixedUnit resolved = resolvePrefixedUnit(prefixedUnit);
+            if(resolved != null && resolved.baseUnit().equals(baseUnit))
+                result.put(prefixedUnit, resolved);
         }
+        return result;
     }
     
 //    /**
@@ -287,17 +499,178 @@ public class ConversionContainer implements Iterable<Conversion>{
      * that include a specified unit record.
      * 
      * @param unit searched for unit record.
-     * @param excluded array of units that won't be added to the
+     * @param excluded units that won't be added to the
      *                 returned array even if they have a direct conversion
-     *                 with passed unit.
+     *                 with passed unit. Passing a Set makes the check constant-time.
      * @return ArrayList of found unit names.
      */
-    public ArrayList<String> findAllDirectConversions(String unit, ArrayList<String> excluded){   
-        return data.stream()
-               .filter(c -> c.includesUnit(unit))
-               .filter(c -> !excluded.contains(c.returnOppositeUnit(unit)))
-               .map(c -> c.returnOppositeUnit(unit))
-               .collect(Collectors.toCollection(ArrayList::new));
+    public ArrayList<String> findAllDirectConversions(String unit, Collection<String> excluded){   
+        ArrayList<String> result = new ArrayList<>();
+        for(String neighbor : getNeighbors(unit)){
+            if(!excluded.contains(neighbor))
+                result.add(neighbor);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns all units that have a direct conversion with the specified unit,
+     * in the order their conversions were added.
+     * 
+     * @param unit searched for unit record.
+     * @return read-only view of the unit's neighbors, empty if the unit
+     *         isn't included in any conversion.
+     */
+    public Set<String> getNeighbors(String unit){
+        LinkedHashMap<String, ConversionEdge> neighbors = adjacency.get(unit);
+        if(neighbors == null)
+            return Collections.emptySet();
+        return Collections.unmodifiableSet(neighbors.keySet());
+    }
+    
+    /**
+     * Checks if a path of conversions exists between two units.
+     * Doesn't search the graph or modify the container, so it can be called by many threads at once.
+     * 
+     * @param unit1 first unit record.
+     * @param unit2 second unit record.
+     * @return true if both units are included in conversions and
+     *         are connected directly or through other units.
+     */
+    public boolean areConnected(String unit1, String unit2){
+        return components.connected(unit1, unit2);
+    }
+    
+    /**
+     * Updates components after a conversion of the spanning tree has been deleted.
+     * Only the affected component is traversed; if the units of the conversion
+     * are no longer connected, it is regrouped into two components.
+     * 
+     * @param c deleted conversion, already removed from the adjacency lists.
+     */
+    private void splitComponent(Conversion c){
+        String unit1 = c.getOriginalUnit();
+        String unit2 = c.getTargetUnit();
+        LinkedHashSet<String> part1 = collectComponent(unit1);
+        if(part1.contains(unit2))
+            return;
+        LinkedHashSet<String> part2 = collectComponent(unit2);
+        
+        components.regroup(part1);
+        components.regroup(part2);
+        //Units left without conversions don't belong to any component
+        if(part1.isEmpty())
+            components.remove(unit1);
+        if(part2.isEmpty())
+            components.remove(unit2);
+    }
+    
+    /**
+     * Returns all units connected to the unit, found by traversing the adjacency lists.
+     * 
+     * @param unit unit from which the traversal starts.
+     * @return connected units including the passed one, empty if the unit has no conversions.
+     */
+    private LinkedHashSet<String> collectComponent(String unit){
+        LinkedHashSet<String> units = new LinkedHashSet<>();
+        if(!adjacency.containsKey(unit))
+            return units;
+        
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        units.add(unit);
+        queue.add(unit);
+        while(!queue.isEmpty()){
+            for(String neighbor : adjacency.get(queue.poll()).keySet()){
+                if(units.add(neighbor))
+                    queue.add(neighbor);
+            }
+        }
+        return units;
+    }
+    
+    /**
+     * Creates connected components again from all stored conversions.
+     */
+    private void rebuildComponents(){
+        components.clear();
+        for(Conversion c : data){
+            components.union(c.getOriginalUnit(), c.getTargetUnit());
+        }
+    }
+    
+    /**
+     * Returns a transform converting values measured in unit1 to values measured in unit2,
+     * composed from transforms of both units to the root unit of their component.
+     * The transforms are kept up to date by the container, so the result is found
+     * without searching the graph, regardless of the distance between units.
+     * The path used follows a spanning tree of the component, not necessarily the shortest path.
+     * 
+     * @param unit1 original unit.
+     * @param unit2 target unit.
+     * @return transform between the units, null if they aren't connected.
+     */
+    public AffineTransform getPotentialTransform(String unit1, String unit2){
+        return potentials.transform(unit1, unit2);
+    }
+    
+    /**
+     * Returns units directly connected to the specified unit, mapped to
+     * the edges connecting them.
+     * 
+     * @param unit searched for unit record.
+     * @return read-only map of neighbors, empty if the unit isn't included in any conversion.
+     */
+    Map<String, ConversionEdge> getNeighborEdges(String unit){
+        LinkedHashMap<String, ConversionEdge> neighbors = adjacency.get(unit);
+        if(neighbors == null)
+            return Collections.emptyMap();
+        return Collections.unmodifiableMap(neighbors);
+    }
+    
+    /**
+     * Returns precompiled transform of a direct conversion, in the requested direction.
+     * 
+     * @param unit original unit.
+     * @param neighbor target unit.
+     * @return transform converting values measured in unit to values measured in neighbor,
+     *         null if there is no direct conversion between the units.
+     */
+    AffineTransform getEdgeTransform(String unit, String neighbor){
+        LinkedHashMap<String, ConversionEdge> neighbors = adjacency.get(unit);
+        if(neighbors == null)
+            return null;
+        ConversionEdge edge = neighbors.get(neighbor);
+        if(edge == null)
+            return null;
+        return edge.transformFrom(unit);
+    }
+    
+    /**
+     * Returns exact transform of a direct conversion, in the requested direction.
+     * 
+     * @param unit original unit.
+     * @param neighbor target unit.
+     * @return exact transform converting values measured in unit to values measured in neighbor,
+     *         null if there is no direct conversion between the units.
+     */
+    RationalTransform getExactEdgeTransform(String unit, String neighbor){
+        LinkedHashMap<String, ConversionEdge> neighbors = adjacency.get(unit);
+        if(neighbors == null)
+            return null;
+        ConversionEdge edge = neighbors.get(neighbor);
+        if(edge == null)
+            return null;
+        return edge.exactTransformFrom(unit);
+    }
+    
+    /**
+     * Checks if the unit is included in any stored conversion.
+     * 
+     * @param unit searched for unit record.
+     * @return true if at least one conversion includes the unit.
+     */
+    public boolean containsUnit(String unit){
+        return adjacency.containsKey(unit);
     }
     
     /**
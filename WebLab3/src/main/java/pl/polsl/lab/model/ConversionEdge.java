@@ -0,0 +1,65 @@
+package pl.polsl.lab.model;
+
+/**
+ * Record storing a conversion kept in the container together with its operation
+ * sequence compiled in both directions, with doubles and with exact fractions.
+ * Transforms are created once, when the conversion is added, so traversing
+ * the edge against the stored direction doesn't require inverting anything.
+ *
+ * @param conversion stored conversion.
+ * @param forward transform converting values from the original unit to the target unit.
+ * @param inverse transform converting values from the target unit to the original unit.
+ * @param exactForward exact version of forward, null if the conversion can't be inverted.
+ * @param exactInverse exact version of inverse, null if the conversion can't be inverted.
+ */
+record ConversionEdge (Conversion conversion, AffineTransform forward, AffineTransform inverse,
+                       RationalTransform exactForward, RationalTransform exactInverse){
+
+    /**
+     * Compiles a conversion in both directions.
+     *
+     * @param conversion stored conversion.
+     * @return edge of the conversion graph.
+     */
+    static ConversionEdge of(Conversion conversion){
+        AffineTransform forward = conversion.compile();
+        AffineTransform inverse = AffineTransform.of(conversion.getOperations().invert());
+        RationalTransform exactForward;
+        RationalTransform exactInverse;
+        try{
+            exactForward = RationalTransform.of(conversion.getOperations());
+            exactInverse = exactForward.inverse();
+        }catch(ArithmeticException e){
+            //Stored sequences with zero operands have no exact inverse
+            exactForward = null;
+            exactInverse = null;
+        }
+        return new ConversionEdge(conversion, forward, inverse, exactForward, exactInverse);
+    }
+
+    /**
+     * Returns transform converting values measured in one of the edge's units
+     * to values measured in the other one.
+     *
+     * @param unit unit from which the edge is traversed.
+     * @return forward transform if unit is the original unit, inverse transform otherwise.
+     */
+    AffineTransform transformFrom(String unit){
+        return conversion.getOriginalUnit().equals(unit) ? forward : inverse;
+    }
+
+    /**
+     * Returns exact transform converting values measured in one of the edge's units
+     * to values measured in the other one.
+     *
+     * @param unit unit from which the edge is traversed.
+     * @return exact forward transform if unit is the original unit, exact inverse transform otherwise.
+     * @throws ArithmeticException if the conversion can't be inverted.
+     */
+    RationalTransform exactTransformFrom(String unit){
+        if(exactInverse == null)
+            throw new ArithmeticException("Conversion between " + conversion.getOriginalUnit() + " and "
+                                          + conversion.getTargetUnit() + " can't be inverted.");
+        return conversion.getOriginalUnit().equals(unit) ? exactForward : exactInverse;
+    }
+}
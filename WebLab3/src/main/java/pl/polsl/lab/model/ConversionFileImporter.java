@@ -0,0 +1,380 @@
+package pl.polsl.lab.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Class reading conversions from text in the "conversions.txt" format: one conversion
+ * per line, written as original unit, target unit and operation sequence separated
+ * with spaces or tabs (for example "m ft *3.28"). Empty lines are skipped.
+ *
+ * Text is read as a stream and split into chunks of whole lines. Chunks are parsed
+ * with OperationSequenceLexer by tasks of an executor passed by the caller, while only
+ * a few of them are kept in memory at a time, so large files don't have to be loaded
+ * at once. Parsed chunks are then checked for duplicates in the order of the file.
+ * Parsing doesn't use the container, so it can be done before the container is locked;
+ * only checking against stored conversions needs it.
+ * Lines repeating a stored conversion exactly are skipped, so a file can be imported again.
+ * All incorrect lines are reported together, and nothing is returned if any line is incorrect.
+ *
+ * @version 1.2
+ * @author Kinga Adamczak
+ */
+public class ConversionFileImporter {
+    /** Default number of lines in a chunk.*/
+    public static final int DEFAULT_CHUNK_LINES = 4096;
+
+    /**
+     * Record storing a parsed chunk.
+     *
+     * @param firstLine index of the first line of the chunk.
+     * @param conversions parsed conversions in the order of lines, null for empty and incorrect lines.
+     * @param invalidLines indices of incorrect lines of the chunk.
+     */
+    private record ParsedChunk (int firstLine, Conversion[] conversions, List<Integer> invalidLines){}
+
+    /**
+     * Class storing a parsed file that wasn't checked against stored conversions yet.
+     */
+    public static final class ParsedFile {
+        /** Correct conversions in the order of the file.*/
+        private final ArrayList<Conversion> conversions;
+        /** Indices of lines of the correct conversions.*/
+        private final ArrayList<Integer> lineIndices;
+        /** Indices of incorrect lines, in increasing order.*/
+        private final ArrayList<Integer> invalidLines;
+
+        /**
+         * Constructor initializing an empty file.
+         */
+        private ParsedFile(){
+            conversions = new ArrayList<>();
+            lineIndices = new ArrayList<>();
+            invalidLines = new ArrayList<>();
+        }
+
+        /**
+         * Returns number of correctly parsed conversions.
+         *
+         * @return number of conversions.
+         */
+        public int size(){
+            return conversions.size();
+        }
+    }
+
+    /** Number of lines parsed by one task.*/
+    private final int chunkLines;
+    /** Executor running parsing tasks, null if chunks are parsed in the calling thread.*/
+    private final ExecutorService executor;
+    /** Number of chunks parsed at once.*/
+    private final int parallelism;
+
+    /**
+     * Constructor using chunks of default size, parsed in the calling thread.
+     */
+    public ConversionFileImporter(){
+        this(DEFAULT_CHUNK_LINES, null, 1);
+    }
+
+    /**
+     * Constructor using chunks of default size, parsed by tasks of the executor.
+     *
+     * @param executor executor running parsing tasks, not shut down by the importer.
+     * @param parallelism number of chunks parsed at once, positive.
+     */
+    public ConversionFileImporter(ExecutorService executor, int parallelism){
+        this(DEFAULT_CHUNK_LINES, executor, parallelism);
+    }
+
+    /**
+     * Constructor setting size of chunks and the executor parsing them.
+     *
+     * @param chunkLines number of lines parsed by one task, positive.
+     * @param executor executor running parsing tasks, not shut down by the importer;
+     *                 null to parse chunks in the calling thread.
+     * @param parallelism number of chunks parsed at once, positive.
+     */
+    public ConversionFileImporter(int chunkLines, ExecutorService executor, int parallelism){
+        if(chunkLines < 1)
+            throw new IllegalArgumentException("Chunk has to contain at least one line.");
+        if(parallelism < 1)
+            throw new IllegalArgumentException("At least one chunk has to be parsed at once.");
+        this.chunkLines = chunkLines;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Reads all conversions from text. Lines are numbered from 1.
+     * A line is incorrect if it doesn't consist of exactly three fields, its operation
+     * sequence is incorrect, both its units are the same, a different conversion between
+     * its units is already stored in the container, or its units appear on an earlier line.
+     * Lines equal to a stored conversion are skipped.
+     *
+     * @param reader source of the text, not closed by the method.
+     * @param stored container whose conversions can't be changed by the file.
+     * @return conversions that aren't stored yet, in the order of the file.
+     * @throws IOException if reading fails.
+     * @throws InvalidConversionFileException if any line is incorrect, with indices of all incorrect lines.
+     */
+    public ArrayList<Conversion> read(Reader reader, ConversionContainer stored)
+            throws IOException, InvalidConversionFileException{
+        if(stored == null)
+            throw new IllegalArgumentException("Reader or container was null.");
+        return check(parse(reader), stored);
+    }
+
+    /**
+     * Parses all lines of text, without checking stored conversions. Lines are numbered from 1.
+     * Incorrect lines are remembered and reported by check.
+     *
+     * @param reader source of the text, not closed by the method.
+     * @return parsed file.
+     * @throws IOException if reading fails.
+     */
+    public ParsedFile parse(Reader reader) throws IOException{
+        if(reader == null)
+            throw new IllegalArgumentException("Reader or container was null.");
+
+        ParsedFile file = new ParsedFile();
+        HashSet<UnitPair> seen = new HashSet<>();
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+
+        if(executor == null){
+            int lineIndex = 1;
+            String[] chunk;
+            while((chunk = nextChunk(lines)) != null){
+                merge(parseChunk(lineIndex, chunk), seen, file);
+                lineIndex += chunk.length;
+            }
+        }else{
+            //Parsed chunks are merged in order, with at most two chunks per parsing task waiting
+            ArrayDeque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+            try{
+                int lineIndex = 1;
+                String[] chunk;
+                while((chunk = nextChunk(lines)) != null){
+                    if(pending.size() >= 2 * parallelism)
+                        merge(await(pending.poll()), seen, file);
+                    int firstLine = lineIndex;
+                    String[] chunkContent = chunk;
+                    pending.add(executor.submit(() -> parseChunk(firstLine, chunkContent)));
+                    lineIndex += chunk.length;
+                }
+                while(!pending.isEmpty()){
+                    merge(await(pending.poll()), seen, file);
+                }
+            }finally{
+                //The executor is shared, so only tasks of this file are cancelled
+                for(Future<ParsedChunk> task : pending){
+                    task.cancel(true);
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Checks a parsed file against stored conversions. A line is incorrect if it
+     * was found incorrect while parsing or a different conversion between its units
+     * is already stored. Lines equal to a stored conversion are skipped.
+     *
+     * @param file parsed file.
+     * @param stored container whose conversions can't be changed by the file.
+     * @return conversions that aren't stored yet, in the order of the file.
+     * @throws InvalidConversionFileException if any line is incorrect, with indices of all incorrect lines.
+     */
+    public ArrayList<Conversion> check(ParsedFile file, ConversionContainer stored) throws InvalidConversionFileException{
+        if(file == null || stored == null)
+            throw new IllegalArgumentException("File or container was null.");
+
+        //Lines found while parsing and stored duplicates are reported in the order of lines
+        ArrayList<Conversion> result = new ArrayList<>(file.conversions.size());
+        ArrayList<Integer> invalidLines = new ArrayList<>(file.invalidLines.size());
+        int nextParsingError = 0;
+        for(int i = 0; i < file.conversions.size(); i++){
+            Conversion c = file.conversions.get(i);
+            Conversion storedConversion = stored.returnConversion(c.getOriginalUnit(), c.getTargetUnit());
+            if(storedConversion == null){
+                result.add(c);
+                continue;
+            }
+            if(storedConversion.equals(c))
+                continue;
+            int lineIndex = file.lineIndices.get(i);
+            while(nextParsingError < file.invalidLines.size() && file.invalidLines.get(nextParsingError) < lineIndex){
+                invalidLines.add(file.invalidLines.get(nextParsingError++));
+            }
+            invalidLines.add(lineIndex);
+        }
+        invalidLines.addAll(file.invalidLines.subList(nextParsingError, file.invalidLines.size()));
+
+        if(!invalidLines.isEmpty()){
+            int[] indices = invalidLines.stream().mapToInt(Integer::intValue).toArray();
+            throw new InvalidConversionFileException("Found " + indices.length + " incorrect line(s) in conversions file, first at line "
+                                                     + indices[0] + ".", indices);
+        }
+        return result;
+    }
+
+    /**
+     * Reads conversions from text and adds them to the container.
+     * Nothing is added if any line is incorrect.
+     *
+     * @param reader source of the text, not closed by the method.
+     * @param container container receiving read conversions.
+     * @return added conversions in the order of the file.
+     * @throws IOException if reading fails.
+     * @throws InvalidConversionFileException if any line is incorrect, with indices of all incorrect lines.
+     */
+    public ArrayList<Conversion> importInto(Reader reader, ConversionContainer container)
+            throws IOException, InvalidConversionFileException{
+        ArrayList<Conversion> conversions = read(reader, container);
+        container.addAll(conversions);
+        return conversions;
+    }
+
+    /**
+     * Reads the next chunk of lines.
+     *
+     * @param reader source of the text.
+     * @return read lines, null if the text has ended.
+     * @throws IOException if reading fails.
+     */
+    private String[] nextChunk(BufferedReader reader) throws IOException{
+        ArrayList<String> chunk = new ArrayList<>(Math.min(chunkLines, DEFAULT_CHUNK_LINES));
+        String line;
+        while(chunk.size() < chunkLines && (line = reader.readLine()) != null){
+            chunk.add(line);
+        }
+        return chunk.isEmpty() ? null : chunk.toArray(new String[0]);
+    }
+
+    /**
+     * Waits for a chunk to be parsed.
+     *
+     * @param task parsing task.
+     * @return parsed chunk.
+     * @throws IOException if the thread was interrupted while waiting.
+     */
+    private static ParsedChunk await(Future<ParsedChunk> task) throws IOException{
+        try{
+            return task.get();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reading conversions file was interrupted.");
+        }catch(ExecutionException e){
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException("Parsing conversions file failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Parses all lines of a chunk. Doesn't use any shared state, so chunks can be parsed in parallel.
+     *
+     * @param firstLine index of the first line of the chunk.
+     * @param lines lines of the chunk.
+     * @return parsed chunk.
+     */
+    private static ParsedChunk parseChunk(int firstLine, String[] lines){
+        Conversion[] conversions = new Conversion[lines.length];
+        ArrayList<Integer> invalidLines = new ArrayList<>();
+        for(int i = 0; i < lines.length; i++){
+            try{
+                conversions[i] = parseLine(lines[i]);
+            }catch(IllegalArgumentException e){
+                invalidLines.add(firstLine + i);
+            }
+        }
+        return new ParsedChunk(firstLine, conversions, invalidLines);
+    }
+
+    /**
+     * Parses a single line.
+     *
+     * @param line line of the file.
+     * @return parsed conversion, null if the line is empty.
+     * @throws IllegalArgumentException if the line is incorrect.
+     */
+    private static Conversion parseLine(String line){
+        String[] fields = new String[3];
+        int count = 0;
+        int i = 0;
+        int length = line.length();
+        while(i < length){
+            //Skip separators
+            while(i < length && isSeparator(line.charAt(i))){
+                i++;
+            }
+            if(i == length)
+                break;
+            int start = i;
+            while(i < length && !isSeparator(line.charAt(i))){
+                i++;
+            }
+            if(count == fields.length)
+                throw new IllegalArgumentException("Line contains more than three fields.");
+            fields[count++] = line.substring(start, i);
+        }
+
+        if(count == 0)
+            return null;
+        if(count != fields.length)
+            throw new IllegalArgumentException("Line contains less than three fields.");
+        if(fields[0].equals(fields[1]))
+            throw new IllegalArgumentException("Conversion between the same unit.");
+        return new Conversion(fields[0], fields[1], OperationSequenceLexer.parse(fields[2]));
+    }
+
+    /**
+     * Checks if a character separates fields of a line.
+     *
+     * @param c checked character.
+     * @return true for spaces and tabs.
+     */
+    private static boolean isSeparator(char c){
+        return c == ' ' || c == '\t';
+    }
+
+    /**
+     * Adds conversions of a parsed chunk to the file, marking duplicates as incorrect lines.
+     *
+     * @param chunk parsed chunk.
+     * @param seen units of conversions found on earlier lines.
+     * @param file parsed file receiving correct conversions and indices of incorrect lines.
+     */
+    private static void merge(ParsedChunk chunk, HashSet<UnitPair> seen, ParsedFile file){
+        //Syntax errors of the chunk and its duplicates are reported in the order of lines
+        int nextSyntaxError = 0;
+        List<Integer> syntaxErrors = chunk.invalidLines();
+        Conversion[] conversions = chunk.conversions();
+        for(int i = 0; i < conversions.length; i++){
+            int lineIndex = chunk.firstLine() + i;
+            if(nextSyntaxError < syntaxErrors.size() && syntaxErrors.get(nextSyntaxError) == lineIndex){
+                file.invalidLines.add(lineIndex);
+                nextSyntaxError++;
+                continue;
+            }
+            Conversion c = conversions[i];
+            if(c == null)
+                continue;
+            if(!seen.add(UnitPair.of(c))){
+                file.invalidLines.add(lineIndex);
+            }else{
+                file.conversions.add(c);
+                file.lineIndices.add(lineIndex);
+            }
+        }
+    }
+}
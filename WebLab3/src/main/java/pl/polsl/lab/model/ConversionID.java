@@ -5,6 +5,7 @@
 package pl.polsl.lab.model;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Compound key for the "Conversion" class.
@@ -45,4 +46,37 @@ public class ConversionID implements Serializable{
     public void setTargetUnit(String target){
         this.targetUnit = target;
     }
+
+    /**
+     * Checks if compared object has the same unit symbols in the same order.
+     * 
+     * @param o compared object.
+     * @return true if objects are the same.
+     */
+    @Override
+    public boolean equals(Object o){
+        if (o == this) {
+            return true;
+        }
+        
+        if (o instanceof ConversionID) {
+            ConversionID id = (ConversionID)o;
+            return Objects.equals(originalUnit, id.originalUnit)
+                && Objects.equals(targetUnit, id.targetUnit);
+        }
+        return false;
+    }
+
+    /**
+     * Returns hash code.
+     * 
+     * @return hash code assigned to the object.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 41 * hash + Objects.hashCode(this.originalUnit);
+        hash = 41 * hash + Objects.hashCode(this.targetUnit);
+        return hash;
+    }
 }
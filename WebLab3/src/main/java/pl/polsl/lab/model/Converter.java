@@ -1,29 +1,89 @@
 package pl.polsl.lab.model;
 
+import java.nio.DoubleBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 
 /**
  * Class converting values to different units
  * using a reference to an existing ConversionContainer
  * type object as a conversion database.
  * 
- * @version 2.0
+ * @version 2.5
  * @author Kinga Adamczak
  */
 public class Converter {
     /** Reference to conversions known by the class.*/
     private ConversionContainer data;
+    /** Algorithm used to find paths between units.*/
+    private final PathSearch pathSearch;
+    /** Compact copy of the container's graph, used by the COMPACT_GRAPH search.*/
+    private CompactUnitGraph compactGraph;
+    /** Transforms created for recently converted pairs of units.*/
+    private final ConversionCache cache;
+    /** True if transforms are composed with exact fractions instead of doubles.*/
+    private final boolean exactArithmetic;
     
     /**
      * Constructor setting a reference to a ConversionContainer
-     * type object.
+     * type object. Paths are found with the BREADTH_FIRST search
+     * and cached in a cache of default capacity.
      * 
      * @param conv reference to ConversionContainer type object.
      */
     public Converter(ConversionContainer conv){
+        this(conv, PathSearch.BREADTH_FIRST);
+    }
+    
+    /**
+     * Constructor setting a reference to a ConversionContainer
+     * type object and the algorithm used to find paths between units.
+     * Found paths are cached in a cache of default capacity.
+     * 
+     * @param conv reference to ConversionContainer type object.
+     * @param search algorithm used to find paths between units.
+     */
+    public Converter(ConversionContainer conv, PathSearch search){
+        this(conv, search, new ConversionCache());
+    }
+    
+    /**
+     * Constructor setting a reference to a ConversionContainer
+     * type object, the algorithm used to find paths between units
+     * and the cache storing found paths. Transforms are composed with doubles.
+     * 
+     * @param conv reference to ConversionContainer type object.
+     * @param search algorithm used to find paths between units.
+     * @param pathCache cache storing transforms of found paths.
+     */
+    public Converter(ConversionContainer conv, PathSearch search, ConversionCache pathCache){
+        this(conv, search, pathCache, false);
+    }
+    
+    /**
+     * Constructor setting a reference to a ConversionContainer
+     * type object, the algorithm used to find paths between units,
+     * the cache storing found paths and the arithmetic used to compose them.
+     * In exact arithmetic operands are read as fractions and composed without rounding;
+     * the result is rounded to doubles once, before it's cached and applied.
+     * The arithmetic can't be changed later, so a converter can be shared by many threads
+     * and its cache never mixes transforms created in both arithmetics.
+     * 
+     * @param conv reference to ConversionContainer type object.
+     * @param search algorithm used to find paths between units.
+     * @param pathCache cache storing transforms of found paths, not shared
+     *                  with a converter using the other arithmetic.
+     * @param exact true to compose transforms with exact fractions, false to use doubles.
+     */
+    public Converter(ConversionContainer conv, PathSearch search, ConversionCache pathCache, boolean exact){
         this.data = conv;
+        this.pathSearch = search;
+        this.cache = pathCache;
+        this.exactArithmetic = exact;
     }
     
     /**
@@ -37,22 +97,31 @@ public class Converter {
     }
     
     /**
-     * Returns operation sequence needed to convert value measured
-     * with startUnit to a value measured with endUnit.
+     * Returns algorithm used by the converter to find paths between units.
      * 
-     * @param startUnit original unit.
-     * @param endUnit target unit.
-     * @return requested operation sequence, null if direct conversion between startUnit
-     *         and endUnit doesn't exist.
+     * @return path search algorithm.
      */
-    private OperationSequence findOperationSequence(String startUnit, String endUnit){
-        Conversion conv = data.returnConversion(startUnit, endUnit);
-        if(conv == null) return null;
-        String target = conv.getTargetUnit();
-        
-        if(target.equals(startUnit))
-            conv.invertOperationSequence();
-        return conv.getOperations();
+    public PathSearch getPathSearch(){
+        return pathSearch;
+    }
+    
+    /**
+     * Returns cache storing transforms of found paths,
+     * which also counts cache hits and misses.
+     * 
+     * @return cache used by the converter.
+     */
+    public ConversionCache getCache(){
+        return cache;
+    }
+    
+    /**
+     * Checks if transforms of paths are composed with exact fractions.
+     * 
+     * @return true if exact arithmetic is used.
+     */
+    public boolean isExactArithmetic(){
+        return exactArithmetic;
     }
     
      /**
@@ -93,55 +162,283 @@ public class Converter {
      *         ultimately lead to the endUnit. Null if such a path doesn't exist.
      */
     private ArrayList<String> findUnitPath(String startUnit, String endUnit){
-        ArrayList<String> excluded = new ArrayList<>();
-        ArrayList<String> queue = new ArrayList<>();
+        if(pathSearch == PathSearch.COMPACT_GRAPH)
+            return getCompactGraph().findPath(startUnit, endUnit);
+        if(pathSearch == PathSearch.BIDIRECTIONAL)
+            return findUnitPathBidirectional(startUnit, endUnit);
+        
+        if(!data.containsUnit(startUnit) || !data.containsUnit(endUnit))
+            return null;
+        
+        HashSet<String> visited = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
         
-        excluded.add(startUnit);
+        visited.add(startUnit);
         queue.add(startUnit);
         
         //child -> parent
         HashMap<String, String> mapToPrevious = new HashMap<>();
         
         while(!queue.isEmpty()){
-            String currentUnit = queue.remove(0);
-            ArrayList<String> currentResult = data.findAllDirectConversions(currentUnit, excluded);
-            excluded.addAll(currentResult);
-            queue.addAll(currentResult);
-            for(String childUnit : currentResult){
+            String currentUnit = queue.poll();
+            for(String childUnit : data.getNeighbors(currentUnit)){
+                if(!visited.add(childUnit))
+                    continue;
                 mapToPrevious.put(childUnit, currentUnit);
+                if(childUnit.equals(endUnit))
+                    return createPath(startUnit, endUnit, mapToPrevious);
+                queue.add(childUnit);
             }
-            if(currentResult.contains(endUnit))
-                return createPath(startUnit, endUnit, mapToPrevious);
         }
              
         return null;
     }
     
     /**
-     * Creates a Conversion type object needed to convert value
-     * measured with startUnit to a value measured with endUnit.
+     * Finds path from startUnit to endUnit using two breadth-first searches,
+     * one starting from each unit. In every step the side with the smaller frontier
+     * is expanded by one whole level; the search stops as soon as a unit is reached
+     * from both sides. Expanding whole levels guarantees that the first meeting
+     * unit lies on a shortest path.
+     * 
+     * @param startUnit original unit.
+     * @param endUnit target unit.
+     * @return ArrayList containing ordered units whose conversions
+     *         ultimately lead to the endUnit. Null if such a path doesn't exist.
+     */
+    private ArrayList<String> findUnitPathBidirectional(String startUnit, String endUnit){
+        if(!data.containsUnit(startUnit) || !data.containsUnit(endUnit) || startUnit.equals(endUnit))
+            return null;
+        
+        //child -> parent, for both searches
+        HashMap<String, String> fromStart = new HashMap<>();
+        HashMap<String, String> fromEnd = new HashMap<>();
+        fromStart.put(startUnit, startUnit);
+        fromEnd.put(endUnit, endUnit);
+        
+        ArrayList<String> startFrontier = new ArrayList<>();
+        ArrayList<String> endFrontier = new ArrayList<>();
+        startFrontier.add(startUnit);
+        endFrontier.add(endUnit);
+        
+        while(!startFrontier.isEmpty() && !endFrontier.isEmpty()){
+            boolean forward = startFrontier.size() <= endFrontier.size();
+            ArrayList<String> frontier = forward ? startFrontier : endFrontier;
+            HashMap<String, String> visited = forward ? fromStart : fromEnd;
+            HashMap<String, String> otherVisited = forward ? fromEnd : fromStart;
+            
+            ArrayList<String> nextFrontier = new ArrayList<>();
+            for(String currentUnit : frontier){
+                for(String childUnit : data.getNeighbors(currentUnit)){
+                    if(visited.containsKey(childUnit))
+                        continue;
+                    visited.put(childUnit, currentUnit);
+                    if(otherVisited.containsKey(childUnit))
+                        return splicePath(startUnit, endUnit, childUnit, fromStart, fromEnd);
+                    nextFrontier.add(childUnit);
+                }
+            }
+            
+            if(forward)
+                startFrontier = nextFrontier;
+            else
+                endFrontier = nextFrontier;
+        }
+        return null;
+    }
+    
+    /**
+     * Joins paths found by both searches of the bidirectional search.
+     * 
+     * @param startUnit original unit.
+     * @param endUnit target unit.
+     * @param meetingUnit unit reached by both searches.
+     * @param fromStart maps units to the previous unit in their path from startUnit.
+     * @param fromEnd maps units to the previous unit in their path from endUnit.
+     * @return ArrayList containing ordered units whose conversions
+     *         ultimately lead to the endUnit.
+     */
+    private ArrayList<String> splicePath(String startUnit, String endUnit, String meetingUnit,
+                                         HashMap<String, String> fromStart, HashMap<String, String> fromEnd){
+        ArrayList<String> path = new ArrayList<>();
+        for(String unit = meetingUnit; !unit.equals(startUnit); unit = fromStart.get(unit)){
+            path.add(unit);
+        }
+        path.add(startUnit);
+        Collections.reverse(path);
+        
+        for(String unit = meetingUnit; !unit.equals(endUnit); ){
+            unit = fromEnd.get(unit);
+            path.add(unit);
+        }
+        return path;
+    }
+    
+    /**
+     * Returns compact copy of the container's graph, rebuilding it first
+     * if the container has been modified since it was created.
+     * Synchronized, so threads sharing the converter don't rebuild it at the same time.
+     * 
+     * @return compact graph matching current container contents.
+     */
+    private synchronized CompactUnitGraph getCompactGraph(){
+        if(compactGraph == null || compactGraph.getVersion() != data.getVersion())
+            compactGraph = new CompactUnitGraph(data);
+        return compactGraph;
+    }
+    
+    /**
+     * Returns a transform needed to convert value measured with startUnit
+     * to a value measured with endUnit. Units that aren't stored in the container
+     * but are prefixed versions of registered base metric units are first
+     * replaced with their base units.
+     * Conversion of a unit to itself isn't defined, as in the conversion database.
+     * 
+     * @param startUnit original unit.
+     * @param endUnit target unit.
+     * @return transform connecting the two units or null if no path between them is found.
+     */
+    private AffineTransform findConversion(String startUnit, String endUnit){
+        if(startUnit.equals(endUnit))
+            return null;
+        if(exactArithmetic)
+            return findExactConversion(startUnit, endUnit);
+        
+        MetricPrefixResolver.PrefixedUnit prefixedStart = data.resolvePrefixedUnit(startUnit);
+        MetricPrefixResolver.PrefixedUnit prefixedEnd = data.resolvePrefixedUnit(endUnit);
+        if(prefixedStart == null && prefixedEnd == null)
+            return findStoredConversion(startUnit, endUnit);
+        
+        AffineTransform toStart = AffineTransform.IDENTITY;
+        AffineTransform fromEnd = AffineTransform.IDENTITY;
+        if(prefixedStart != null){
+            startUnit = prefixedStart.baseUnit();
+            toStart = prefixedStart.toBase();
+        }
+        if(prefixedEnd != null){
+            endUnit = prefixedEnd.baseUnit();
+            fromEnd = prefixedEnd.fromBase();
+        }
+        
+        AffineTransform stored = startUnit.equals(endUnit) ? AffineTransform.IDENTITY
+                                                           : findStoredConversion(startUnit, endUnit);
+        if(stored == null)
+            return null;
+        return toStart.then(stored).then(fromEnd);
+    }
+    
+    /**
+     * Returns a transform needed to convert value measured with startUnit
+     * to a value measured with endUnit, using only stored conversions and
+     * taking it from the cache if possible.
+     * Units from different components of the graph are rejected without searching for a path.
+     * 
+     * @param startUnit original unit, different from endUnit.
+     * @param endUnit target unit.
+     * @return transform connecting the two units or null if no path between them is found.
+     */
+    private AffineTransform findStoredConversion(String startUnit, String endUnit){
+        if(!data.areConnected(startUnit, endUnit))
+            return null;
+        if(pathSearch == PathSearch.SPANNING_TREE)
+            return data.getPotentialTransform(startUnit, endUnit);
+        
+        long version = data.getVersion();
+        AffineTransform transform = cache.get(startUnit, endUnit, version);
+        if(transform == null){
+            transform = createConversion(startUnit, endUnit);
+            if(transform != null)
+                cache.put(startUnit, endUnit, version, transform);
+        }
+        return transform;
+    }
+    
+    /**
+     * Creates a transform needed to convert value measured with startUnit
+     * to a value measured with endUnit.
      * The units don't have to be directly connected to each other - method will
-     * find the shortest path between them and create the operation sequence
-     * inside Conversion type object accordingly.
+     * find the shortest path between them and compose precompiled transforms of all
+     * conversions along the path into a single transform.
      * 
      * @param startUnit original unit.
      * @param endUnit target unit.
-     * @return Conversion type object with an operation sequence connecting
-     *         the two units or null if no path between them is found.
+     * @return transform connecting the two units or null if no path between them is found.
      */
-    private Conversion createConversion(String startUnit, String endUnit){
+    private AffineTransform createConversion(String startUnit, String endUnit){
         ArrayList<String> unitPath = findUnitPath(startUnit, endUnit);
         if(unitPath == null)
             return null;
         
-        OperationSequence fullSequence = new OperationSequence();
+        AffineTransform fullTransform = AffineTransform.IDENTITY;
         for(int i = 0; i < unitPath.size() - 1; i++){
-            OperationSequence seq = findOperationSequence(unitPath.get(i), 
-                                                          unitPath.get(i+1));
-            fullSequence.add(seq);
+            AffineTransform step = data.getEdgeTransform(unitPath.get(i), 
+                                                         unitPath.get(i+1));
+            fullTransform = fullTransform.then(step);
+        }
+        
+        return fullTransform;
+    }
+    
+    /**
+     * Returns a transform needed to convert value measured with startUnit
+     * to a value measured with endUnit, composed in exact arithmetic and
+     * taking it from the cache if possible. Prefixed metric units are resolved
+     * as in double arithmetic.
+     * 
+     * @param startUnit original unit, different from endUnit.
+     * @param endUnit target unit.
+     * @return exact transform rounded to doubles or null if no path between the units is found.
+     */
+    private AffineTransform findExactConversion(String startUnit, String endUnit){
+        long version = data.getVersion();
+        AffineTransform transform = cache.get(startUnit, endUnit, version);
+        if(transform == null){
+            RationalTransform exact = createExactConversion(startUnit, endUnit);
+            if(exact == null)
+                return null;
+            transform = exact.toAffineTransform();
+            cache.put(startUnit, endUnit, version, transform);
+        }
+        return transform;
+    }
+    
+    /**
+     * Creates an exact transform needed to convert value measured with startUnit
+     * to a value measured with endUnit, composing exact transforms of all conversions
+     * along the shortest path between them.
+     * 
+     * @param startUnit original unit, different from endUnit.
+     * @param endUnit target unit.
+     * @return exact transform connecting the two units or null if no path between them is found.
+     */
+    private RationalTransform createExactConversion(String startUnit, String endUnit){
+        RationalTransform toStart = RationalTransform.IDENTITY;
+        RationalTransform fromEnd = RationalTransform.IDENTITY;
+        MetricPrefixResolver.PrefixedUnit prefixedStart = data.resolvePrefixedUnit(startUnit);
+        MetricPrefixResolver.PrefixedUnit prefixedEnd = data.resolvePrefixedUnit(endUnit);
+        if(prefixedStart != null){
+            startUnit = prefixedStart.baseUnit();
+            toStart = prefixedStart.exactToBase();
+        }
+        if(prefixedEnd != null){
+            endUnit = prefixedEnd.baseUnit();
+            fromEnd = prefixedEnd.exactFromBase();
         }
         
-        return new Conversion(startUnit, endUnit, fullSequence);
+        RationalTransform fullTransform = toStart;
+        if(!startUnit.equals(endUnit)){
+            if(!data.areConnected(startUnit, endUnit))
+                return null;
+            ArrayList<String> unitPath = findUnitPath(startUnit, endUnit);
+            if(unitPath == null)
+                return null;
+            for(int i = 0; i < unitPath.size() - 1; i++){
+                RationalTransform step = data.getExactEdgeTransform(unitPath.get(i), 
+                                                                    unitPath.get(i+1));
+                fullTransform = fullTransform.then(step);
+            }
+        }
+        return fullTransform.then(fromEnd);
     }
     
 //    /**
@@ -173,11 +470,222 @@ public class Converter {
         double originalValue = input.getValue();
         String originalUnit = input.getUnit();
         
-        Conversion conversion = createConversion(originalUnit, targetUnit);
+        AffineTransform conversion = findConversion(originalUnit, targetUnit);
         if(conversion == null)
             return null;
 
-        double calculatedValue = conversion.calculate(originalValue);
+        double calculatedValue = conversion.apply(originalValue);
         return new ValueWithUnit(calculatedValue, targetUnit);       
     }
+    
+    /**
+     * Converts many values measured in the same unit to values measured in another unit.
+     * The path between units is found only once for all values.
+     * 
+     * @param values values measured with originalUnit.
+     * @param originalUnit unit that values are measured with.
+     * @param targetUnit new unit that values should be measured with.
+     * @return new array with values converted to be measured with targetUnit, null
+     *         if there is no connection between the two units.
+     */
+    public double[] convert(double[] values, String originalUnit, String targetUnit){
+        AffineTransform conversion = findConversion(originalUnit, targetUnit);
+        if(conversion == null)
+            return null;
+        
+        double[] result = new double[values.length];
+        conversion.apply(values, result);
+        return result;
+    }
+    
+    /**
+     * Converts many values measured in the same unit to values measured in another unit,
+     * replacing them in the passed array. The path between units is found only once for all values.
+     * 
+     * @param values values measured with originalUnit, replaced by converted values.
+     * @param originalUnit unit that values are measured with.
+     * @param targetUnit new unit that values should be measured with.
+     * @return true if values were converted, false if there is no connection
+     *         between the two units (values are left unchanged).
+     */
+    public boolean convertInPlace(double[] values, String originalUnit, String targetUnit){
+        AffineTransform conversion = findConversion(originalUnit, targetUnit);
+        if(conversion == null)
+            return false;
+        
+        conversion.apply(values, values);
+        return true;
+    }
+    
+    /**
+     * Converts remaining values of the buffer (from its position to its limit),
+     * measured in the same unit, to values measured in another unit, replacing them in the buffer.
+     * The path between units is found only once for all values.
+     * 
+     * @param values buffer with values measured with originalUnit, receiving converted values.
+     * @param originalUnit unit that values are measured with.
+     * @param targetUnit new unit that values should be measured with.
+     * @return true if values were converted, false if there is no connection
+     *         between the two units (values are left unchanged).
+     */
+    public boolean convertInPlace(DoubleBuffer values, String originalUnit, String targetUnit){
+        AffineTransform conversion = findConversion(originalUnit, targetUnit);
+        if(conversion == null)
+            return false;
+        
+        conversion.apply(values);
+        return true;
+    }
+
+    /**
+     * Converts a value measured in one unit to values measured in every unit
+     * connected to it. Uses a single breadth-first search from the original unit,
+     * composing transforms along the search tree, instead of a separate search
+     * for every target unit. In exact arithmetic transforms are composed with
+     * exact fractions and rounded separately for every unit.
+     * Prefixed versions of registered base metric units are included without stored
+     * conversions, right after their base unit; a prefixed original unit is converted
+     * through its base unit.
+     * 
+     * @param input value with the original unit.
+     * @return input value converted to every reachable unit (excluding the original unit),
+     *         in the order of growing distance from the original unit. Empty list if the
+     *         original unit isn't included in any conversion and isn't a metric unit.
+     */
+    public ArrayList<ValueWithUnit> convertToAll(ValueWithUnit input){
+        if(exactArithmetic)
+            return convertToAll(input, EXACT_TRANSFORMS);
+        return convertToAll(input, DOUBLE_TRANSFORMS);
+    }
+    
+    /**
+     * Converts a value measured in one unit to values measured in every unit
+     * connected to it, composing transforms of the given kind along the search tree.
+     * 
+     * @param <T> type of composed transforms.
+     * @param input value with the original unit.
+     * @param transformKind accessor of transforms used by edges and prefixed units.
+     * @return input value converted to every reachable unit (excluding the original unit),
+     *         in the order of growing distance from the original unit.
+     */
+    private <T> ArrayList<ValueWithUnit> convertToAll(ValueWithUnit input, TransformKind<T> transformKind){
+        double originalValue = input.getValue();
+        String originalUnit = input.getUnit();
+        ArrayList<ValueWithUnit> results = new ArrayList<>();
+        
+        //Units mapped to transforms from the original unit
+        HashMap<String, T> transforms = new HashMap<>();
+        transforms.put(originalUnit, transformKind.identity());
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        
+        //Resolved prefixed unit is converted through its base unit
+        MetricPrefixResolver.PrefixedUnit prefixedStart = data.resolvePrefixedUnit(originalUnit);
+        if(prefixedStart == null){
+            queue.add(originalUnit);
+        }else{
+            T toBase = transformKind.toBase(prefixedStart);
+            transforms.put(prefixedStart.baseUnit(), toBase);
+            results.add(new ValueWithUnit(transformKind.apply(toBase, originalValue), prefixedStart.baseUnit()));
+            queue.add(prefixedStart.baseUnit());
+        }
+        
+        while(!queue.isEmpty()){
+            String current = queue.poll();
+            T toCurrent = transforms.get(current);
+            
+            //Prefixed versions of a metric unit don't have any other neighbors
+            for(Map.Entry<String, MetricPrefixResolver.PrefixedUnit> entry : data.getPrefixedUnits(current).entrySet()){
+                String next = entry.getKey();
+                if(transforms.containsKey(next))
+                    continue;
+                
+                T toNext = transformKind.then(toCurrent, transformKind.fromBase(entry.getValue()));
+                transforms.put(next, toNext);
+                results.add(new ValueWithUnit(transformKind.apply(toNext, originalValue), next));
+            }
+            
+            for(Map.Entry<String, ConversionEdge> entry : data.getNeighborEdges(current).entrySet()){
+                String next = entry.getKey();
+                if(transforms.containsKey(next))
+                    continue;
+                
+                T toNext = transformKind.then(toCurrent, transformKind.transformFrom(entry.getValue(), current));
+                transforms.put(next, toNext);
+                results.add(new ValueWithUnit(transformKind.apply(toNext, originalValue), next));
+                queue.add(next);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Interface giving access to transforms of one kind, so the same
+     * search can compose either double or exact transforms.
+     * 
+     * @param <T> type of transforms.
+     */
+    private interface TransformKind<T> {
+        /** @return transform leaving values unchanged.*/
+        T identity();
+        /**
+         * @param edge stored conversion.
+         * @param unit unit the conversion is applied from.
+         * @return transform of the edge from the given unit to the other one.
+         */
+        T transformFrom(ConversionEdge edge, String unit);
+        /**
+         * @param unit prefixed metric unit.
+         * @return transform from the prefixed unit to its base unit.
+         */
+        T toBase(MetricPrefixResolver.PrefixedUnit unit);
+        /**
+         * @param unit prefixed metric unit.
+         * @return transform from the base unit to the prefixed unit.
+         */
+        T fromBase(MetricPrefixResolver.PrefixedUnit unit);
+        /**
+         * @param first transform applied first.
+         * @param next transform applied next.
+         * @return transform equal to applying both transforms.
+         */
+        T then(T first, T next);
+        /**
+         * @param transform applied transform.
+         * @param value converted value.
+         * @return value after the transform, rounded to a double.
+         */
+        double apply(T transform, double value);
+    }
+    
+    /** Transforms composed with doubles.*/
+    private static final TransformKind<AffineTransform> DOUBLE_TRANSFORMS = new TransformKind<>() {
+        @Override
+        public AffineTransform identity(){ return AffineTransform.IDENTITY; }
+        @Override
+        public AffineTransform transformFrom(ConversionEdge edge, String unit){ return edge.transformFrom(unit); }
+        @Override
+        public AffineTransform toBase(MetricPrefixResolver.PrefixedUnit unit){ return unit.toBase(); }
+        @Override
+        public AffineTransform fromBase(MetricPrefixResolver.PrefixedUnit unit){ return unit.fromBase(); }
+        @Override
+        public AffineTransform then(AffineTransform first, AffineTransform next){ return first.then(next); }
+        @Override
+        public double apply(AffineTransform transform, double value){ return transform.apply(value); }
+    };
+    
+    /** Transforms composed with exact fractions, rounded separately for every unit.*/
+    private static final TransformKind<RationalTransform> EXACT_TRANSFORMS = new TransformKind<>() {
+        @Override
+        public RationalTransform identity(){ return RationalTransform.IDENTITY; }
+        @Override
+        public RationalTransform transformFrom(ConversionEdge edge, String unit){ return edge.exactTransformFrom(unit); }
+        @Override
+        public RationalTransform toBase(MetricPrefixResolver.PrefixedUnit unit){ return unit.exactToBase(); }
+        @Override
+        public RationalTransform fromBase(MetricPrefixResolver.PrefixedUnit unit){ return unit.exactFromBase(); }
+        @Override
+        public RationalTransform then(RationalTransform first, RationalTransform next){ return first.then(next); }
+        @Override
+        public double apply(RationalTransform transform, double value){ return transform.toAffineTransform().apply(value); }
+    };
 }
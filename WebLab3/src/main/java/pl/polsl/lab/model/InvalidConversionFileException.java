@@ -1,15 +1,20 @@
 package pl.polsl.lab.model;
 
+import java.util.Arrays;
+
 /**
  * Custom exception class used for situations when a line with incorrect syntax
  * or a duplicate conversion is found in "conversions.txt".
+ * Stores indices of all incorrect lines found in the file.
  * 
- * @version 1.0
+ * @version 1.1
  * @author Kinga Adamczak
  */
 public class InvalidConversionFileException extends Exception{
     /** Index of last found incorrect line in "conversions.txt" file.*/
     private final int invalidLineIndex;
+    /** Indices of all found incorrect lines, in increasing order.*/
+    private final int[] invalidLineIndices;
     
     /**
      * Constructor saving the error message and index of line where the problem occured.
@@ -20,6 +25,21 @@ public class InvalidConversionFileException extends Exception{
     public InvalidConversionFileException(String errorMessage, int lineIndex) {
         super(errorMessage);
         this.invalidLineIndex = lineIndex;
+        this.invalidLineIndices = new int[] { lineIndex };
+    }
+    
+    /**
+     * Constructor saving the error message and indices of all lines where problems occured.
+     * 
+     * @param errorMessage specifies what problems occured.
+     * @param lineIndices indices of all incorrect lines in increasing order, at least one.
+     */
+    public InvalidConversionFileException(String errorMessage, int[] lineIndices) {
+        super(errorMessage);
+        if(lineIndices == null || lineIndices.length == 0)
+            throw new IllegalArgumentException("No incorrect lines were specified.");
+        this.invalidLineIndices = lineIndices.clone();
+        this.invalidLineIndex = lineIndices[lineIndices.length - 1];
     }
     
     /**
@@ -30,4 +50,13 @@ public class InvalidConversionFileException extends Exception{
     public int getInvalidLineIndex(){
         return this.invalidLineIndex;
     }
+    
+    /**
+     * Returns indices of all found incorrect lines in "conversions.txt" file.
+     * 
+     * @return new array of incorrect line indices in increasing order.
+     */
+    public int[] getInvalidLineIndices(){
+        return Arrays.copyOf(invalidLineIndices, invalidLineIndices.length);
+    }
 }
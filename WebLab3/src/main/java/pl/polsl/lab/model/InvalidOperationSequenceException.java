@@ -0,0 +1,34 @@
+package pl.polsl.lab.model;
+
+/**
+ * Custom exception class used for situations when a text doesn't describe
+ * a correct operation sequence. Stores position of the first incorrect character.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class InvalidOperationSequenceException extends IllegalArgumentException{
+    /** Index of the first incorrect character in the parsed text.*/
+    private final int errorIndex;
+
+    /**
+     * Constructor saving the error message and index of character where the problem occured.
+     *
+     * @param errorMessage specifies what problem occured.
+     * @param index index of the first incorrect character (length of the text
+     *              if the text ended too early).
+     */
+    public InvalidOperationSequenceException(String errorMessage, int index) {
+        super(errorMessage + " (position " + index + ")");
+        this.errorIndex = index;
+    }
+
+    /**
+     * Returns index of the first incorrect character in the parsed text.
+     *
+     * @return index of the incorrect character.
+     */
+    public int getErrorIndex(){
+        return this.errorIndex;
+    }
+}
@@ -0,0 +1,146 @@
+package pl.polsl.lab.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Class resolving prefixed metric units (for example "km" or "μm") that aren't stored
+ * in the container to their base unit and a power-of-ten factor. Prefixed units
+ * of registered base units don't need any stored conversions - they are
+ * recognized when a conversion is requested.
+ *
+ * @version 1.3
+ * @author Kinga Adamczak
+ */
+final class MetricPrefixResolver {
+
+    /**
+     * Record storing a prefixed unit resolved to its base unit.
+     *
+     * @param baseUnit base metric unit.
+     * @param toBase transform converting values measured in the prefixed unit to the base unit.
+     * @param fromBase transform converting values measured in the base unit to the prefixed unit.
+     * @param exactToBase exact version of toBase.
+     * @param exactFromBase exact version of fromBase.
+     */
+    record PrefixedUnit (String baseUnit, AffineTransform toBase, AffineTransform fromBase,
+                         RationalTransform exactToBase, RationalTransform exactFromBase){}
+
+    /**
+     * Record storing a metric prefix compiled in both directions.
+     *
+     * @param prefix prefix symbol.
+     * @param fromBase transform converting values from a base unit to the prefixed unit.
+     * @param toBase transform converting values from the prefixed unit to a base unit.
+     * @param exactFromBase exact version of fromBase.
+     * @param exactToBase exact version of toBase.
+     */
+    private record Prefix (String prefix, AffineTransform fromBase, AffineTransform toBase,
+                           RationalTransform exactFromBase, RationalTransform exactToBase){}
+
+    /** Prefixes from MetricPrefixesMap, by prefix symbol.*/
+    private static final HashMap<String, Prefix> PREFIXES = createPrefixes();
+
+    /** Registered base metric units.*/
+    private final HashSet<String> baseUnits;
+
+    /**
+     * Constructor initializing an empty set of base units.
+     */
+    MetricPrefixResolver(){
+        baseUnits = new HashSet<>();
+    }
+
+    /**
+     * Compiles all prefixes of MetricPrefixesMap. Transforms are compiled the same way
+     * as a stored conversion from the base unit to the prefixed unit with the prefix's
+     * multiplier (for example "m km /1000"), so resolved and stored prefixed units
+     * give identical results.
+     *
+     * @return compiled prefixes by prefix symbol.
+     */
+    private static HashMap<String, Prefix> createPrefixes(){
+        MetricPrefixesMap map = new MetricPrefixesMap();
+        HashMap<String, Prefix> prefixes = new HashMap<>();
+        for(String prefix : map.keySet()){
+            OperationSequence multiplier = new OperationSequence(map.returnMultiplier(prefix));
+            RationalTransform exactMultiplier = RationalTransform.of(multiplier);
+            prefixes.put(prefix, new Prefix(prefix, AffineTransform.of(multiplier), AffineTransform.of(multiplier.invert()),
+                                            exactMultiplier, exactMultiplier.inverse()));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Returns symbols of all metric prefixes.
+     *
+     * @return read-only set of prefixes.
+     */
+    static Set<String> prefixes(){
+        return Collections.unmodifiableSet(PREFIXES.keySet());
+    }
+
+    /**
+     * Registers a base metric unit.
+     *
+     * @param baseUnit base unit symbol.
+     * @return true if the unit wasn't registered before.
+     */
+    boolean add(String baseUnit){
+        return baseUnits.add(baseUnit);
+    }
+
+    /**
+     * Unregisters a base metric unit.
+     *
+     * @param baseUnit base unit symbol.
+     * @return true if the unit was registered.
+     */
+    boolean remove(String baseUnit){
+        return baseUnits.remove(baseUnit);
+    }
+
+    /**
+     * Checks if a base metric unit is registered.
+     *
+     * @param baseUnit base unit symbol.
+     * @return true if the unit is registered.
+     */
+    boolean contains(String baseUnit){
+        return baseUnits.contains(baseUnit);
+    }
+
+    /**
+     * Removes all registered base units.
+     */
+    void clear(){
+        baseUnits.clear();
+    }
+
+    /**
+     * Splits a unit into a metric prefix and a registered base unit.
+     * Candidate prefixes are found with the shared MetricPrefixTrie;
+     * if more than one split is possible, the longest prefix is used.
+     *
+     * @param unit resolved unit symbol.
+     * @return resolved unit, null if the unit isn't a prefixed registered base unit.
+     */
+    PrefixedUnit resolve(String unit){
+        if(baseUnits.isEmpty())
+            return null;
+        MetricPrefixTrie trie = MetricPrefixTrie.getInstance();
+        String prefix = trie.longestPrefix(unit, unit.length());
+        while(prefix != null){
+            String base = unit.substring(prefix.length());
+            if(baseUnits.contains(base)){
+                Prefix p = PREFIXES.get(prefix);
+                return new PrefixedUnit(base, p.toBase(), p.fromBase(),
+                                        p.exactToBase(), p.exactFromBase());
+            }
+            prefix = trie.longestPrefix(unit, prefix.length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+package pl.polsl.lab.model;
+
+import java.util.Arrays;
+
+/**
+ * Trie of the metric prefixes from MetricPrefixesMap, built once and shared
+ * by all classes that need to recognize prefixed units. A unit symbol is
+ * classified in a single scan over its first characters, without regex matching
+ * or creating substrings.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public final class MetricPrefixTrie {
+
+    /**
+     * Kinds of unit symbols.
+     */
+    public enum Classification {
+        /** Symbol doesn't begin with a metric prefix (or consists only of a prefix, for example "m").*/
+        BASE,
+        /** Symbol begins with exactly one metric prefix, for example "km".*/
+        PREFIXED,
+        /** Symbol can be split into a prefix and a unit in more than one way, for example "dam".*/
+        AMBIGUOUS
+    }
+
+    /**
+     * Record storing the result of classifying a unit symbol.
+     *
+     * @param classification kind of the symbol.
+     * @param prefix metric prefix the symbol begins with, null unless the symbol is PREFIXED.
+     */
+    public record Match (Classification classification, String prefix){}
+
+    /** Result for symbols without a prefix.*/
+    private static final Match BASE = new Match(Classification.BASE, null);
+    /** Result for symbols with more than one possible prefix.*/
+    private static final Match AMBIGUOUS = new Match(Classification.AMBIGUOUS, null);
+    /** Trie of all prefixes from MetricPrefixesMap.*/
+    private static final MetricPrefixTrie INSTANCE = new MetricPrefixTrie();
+
+    /**
+     * Trie node. Children are kept in small arrays searched linearly,
+     * as there are only a few prefixes.
+     */
+    private static final class Node {
+        /** Characters leading to the children.*/
+        private char[] keys = new char[0];
+        /** Children, in the same order as keys.*/
+        private Node[] children = new Node[0];
+        /** Prefix ending in this node, null if no prefix ends here.*/
+        private String prefix;
+        /** Result for symbols having only this node's prefix.*/
+        private Match match;
+
+        /**
+         * Finds a child node.
+         *
+         * @param c character leading to the child.
+         * @return child node, null if it doesn't exist.
+         */
+        private Node child(char c){
+            for(int i = 0; i < keys.length; i++){
+                if(keys[i] == c)
+                    return children[i];
+            }
+            return null;
+        }
+
+        /**
+         * Finds a child node, creating it if it doesn't exist.
+         *
+         * @param c character leading to the child.
+         * @return child node.
+         */
+        private Node addChild(char c){
+            Node child = child(c);
+            if(child == null){
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+
+    /** Root of the trie, corresponding to an empty prefix.*/
+    private final Node root;
+
+    /**
+     * Constructor building the trie from MetricPrefixesMap.
+     */
+    private MetricPrefixTrie(){
+        root = new Node();
+        for(String prefix : new MetricPrefixesMap().keySet()){
+            Node node = root;
+            for(int i = 0; i < prefix.length(); i++){
+                node = node.addChild(prefix.charAt(i));
+            }
+            node.prefix = prefix;
+            node.match = new Match(Classification.PREFIXED, prefix);
+        }
+    }
+
+    /**
+     * Returns the shared trie.
+     *
+     * @return trie of all metric prefixes.
+     */
+    public static MetricPrefixTrie getInstance(){
+        return INSTANCE;
+    }
+
+    /**
+     * Classifies a unit symbol. Only prefixes shorter than the symbol are considered,
+     * so a symbol consisting only of a prefix (for example "m" or "da") is a base unit.
+     *
+     * @param symbol unit symbol.
+     * @return classification of the symbol, with the prefix if the symbol is PREFIXED.
+     */
+    public Match classify(CharSequence symbol){
+        if(symbol == null)
+            throw new IllegalArgumentException("Classified symbol was null.");
+
+        Match result = BASE;
+        Node node = root;
+        for(int i = 0; i < symbol.length(); i++){
+            node = node.child(symbol.charAt(i));
+            if(node == null)
+                return result;
+            if(node.prefix != null && i < symbol.length() - 1){
+                if(result != BASE)
+                    return AMBIGUOUS;
+                result = node.match;
+            }
+        }
+        //Whole symbol is a prefix
+        return node.prefix != null ? BASE : result;
+    }
+
+    /**
+     * Checks if a symbol is a correct base metric unit: a prefix on its own, or
+     * a symbol not beginning with a prefix and consisting only of word characters
+     * (letters a-z and A-Z, digits and underscores).
+     *
+     * @param symbol unit symbol.
+     * @return true if prefixes can be added to the symbol.
+     */
+    public boolean isNoPrefixUnit(CharSequence symbol){
+        if(symbol == null)
+            throw new IllegalArgumentException("Tested string was null.");
+        if(symbol.length() == 0)
+            return false;
+        if(isPrefix(symbol))
+            return true;
+        if(classify(symbol).classification() != Classification.BASE)
+            return false;
+        for(int i = 0; i < symbol.length(); i++){
+            if(!isWordCharacter(symbol.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a symbol is equal to one of the prefixes.
+     *
+     * @param symbol checked symbol.
+     * @return true if the symbol is a metric prefix.
+     */
+    public boolean isPrefix(CharSequence symbol){
+        Node node = root;
+        for(int i = 0; i < symbol.length() && node != null; i++){
+            node = node.child(symbol.charAt(i));
+        }
+        return node != null && node.prefix != null;
+    }
+
+    /**
+     * Finds the longest prefix of a symbol that is shorter than maxLength characters.
+     * Calling it again with the length of the found prefix gives the next shorter one.
+     *
+     * @param symbol unit symbol.
+     * @param maxLength found prefix must be shorter than this.
+     * @return found prefix, null if there is none.
+     */
+    String longestPrefix(CharSequence symbol, int maxLength){
+        String result = null;
+        Node node = root;
+        int end = Math.min(maxLength - 1, symbol.length());
+        for(int i = 0; i < end; i++){
+            node = node.child(symbol.charAt(i));
+            if(node == null)
+                break;
+            if(node.prefix != null)
+                result = node.prefix;
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a character is a word character (same as \w in the NoPrefixUnitFormat regex).
+     *
+     * @param c checked character.
+     * @return true if the character is an ASCII letter, digit or underscore.
+     */
+    private static boolean isWordCharacter(char c){
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
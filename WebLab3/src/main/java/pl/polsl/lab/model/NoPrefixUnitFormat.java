@@ -3,21 +3,16 @@ package pl.polsl.lab.model;
 import java.util.regex.Pattern;
 
 /**
- * Class containing regex for units that 
+ * Class containing regex for units that don't begin with a metric prefix.
+ * Checks are performed with the shared MetricPrefixTrie, the regex is kept
+ * for callers that need a Pattern.
  * 
- * @version 1.0
+ * @version 1.1
  * @author Kinga Adamczak
  */
 public class NoPrefixUnitFormat {
     /** Regex for metric units. Ensures that the base unit doesn't have a prefix. */
-    private final Pattern noPrefixRegex;
-    
-    /**
-     * Constructor initializing regex pattern.
-     */
-    public NoPrefixUnitFormat(){
-        noPrefixRegex = Pattern.compile("^([T|G|M|k|h|d|c|m|μ|n|p]|da|(?<!da)[^T|G|M|k|h|d|c|m|μ|n|p|\\W][\\w]*)$");
-    }
+    private static final Pattern NO_PREFIX_REGEX = Pattern.compile("^([TGMkhdcmμnp]|da|[^TGMkhdcmμnp\\W]\\w*)$");
     
     /**
      * Returns regex for no prefix units.
@@ -25,7 +20,7 @@ public class NoPrefixUnitFormat {
      * @return instance of class Pattern using the no prefix unit regex.
      */
     public Pattern getNoPrefixRegex(){
-        return this.noPrefixRegex;
+        return NO_PREFIX_REGEX;
     }
     
     /**
@@ -37,6 +32,6 @@ public class NoPrefixUnitFormat {
     public Boolean checkCorrectness(String text){
         if(text == null)
             throw new IllegalArgumentException("Tested string was null.");
-        return text.matches(noPrefixRegex.pattern());
+        return MetricPrefixTrie.getInstance().isNoPrefixUnit(text);
     }
 }
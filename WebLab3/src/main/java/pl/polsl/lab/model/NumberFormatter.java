@@ -0,0 +1,210 @@
+package pl.polsl.lab.model;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Immutable, thread-safe formatter writing numbers in the "0.#" DecimalFormat pattern
+ * (English symbols, no grouping, HALF_EVEN rounding, trailing zeros removed) with
+ * a configurable maximum number of fraction digits. Output is identical to
+ * DecimalFormat, but numbers are written directly into a StringBuilder or Appendable
+ * and typical values are formatted without allocating any objects:
+ *
+ * - a value equal to the nearest double of a decimal with at most maxFractionDigits
+ *   fraction digits (for example 3.28084) is written as that decimal,
+ * - other values are rounded to maxFractionDigits using an exact remainder (Math.fma),
+ *   unless they lie too close to the middle between two results,
+ * - remaining values (too large, ties, NaN, infinities) are formatted with DecimalFormat.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public final class NumberFormatter {
+    /** Largest number of fraction digits handled without DecimalFormat.*/
+    private static final int MAX_FAST_DIGITS = 17;
+    /** Largest integer up to which every integer is exactly representable as a double.*/
+    private static final double MAX_EXACT_INTEGER = 0x1p53;
+    /** Powers of ten exactly representable as doubles (and longs).*/
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17
+    };
+    /** Powers of ten as longs.*/
+    private static final long[] LONG_POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+        10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+        10_000_000_000_000_000L, 100_000_000_000_000_000L
+    };
+    /** DecimalFormat instances used for values that can't be formatted directly, one per thread.*/
+    private static final ThreadLocal<DecimalFormat> FALLBACK = ThreadLocal.withInitial(() -> {
+        DecimalFormat df = new DecimalFormat("0.#");
+        df.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+        return df;
+    });
+
+    /** Maximum number of digits written after the decimal point.*/
+    private final int maxFractionDigits;
+
+    /**
+     * Constructor setting the maximum number of fraction digits.
+     *
+     * @param maxFractionDigits maximum number of digits written after the decimal point.
+     */
+    public NumberFormatter(int maxFractionDigits){
+        if(maxFractionDigits < 0)
+            throw new IllegalArgumentException("Number of fraction digits can't be negative.");
+        this.maxFractionDigits = maxFractionDigits;
+    }
+
+    /**
+     * Returns the maximum number of fraction digits.
+     *
+     * @return maximum number of digits written after the decimal point.
+     */
+    public int getMaxFractionDigits(){
+        return maxFractionDigits;
+    }
+
+    /**
+     * Formats a value to a new String.
+     *
+     * @param value formatted value.
+     * @return value written in the "0.#" pattern.
+     */
+    public String format(double value){
+        return appendTo(new StringBuilder(24), value).toString();
+    }
+
+    /**
+     * Appends a formatted value to a StringBuilder.
+     *
+     * @param builder StringBuilder receiving the value.
+     * @param value formatted value.
+     * @return the passed StringBuilder.
+     */
+    public StringBuilder appendTo(StringBuilder builder, double value){
+        try{
+            appendTo((Appendable) builder, value);
+        }catch(IOException e){
+            //StringBuilder doesn't throw IOException
+            throw new IllegalStateException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Appends a formatted value to an Appendable.
+     *
+     * @param out Appendable receiving the value.
+     * @param value formatted value.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    public Appendable appendTo(Appendable out, double value) throws IOException{
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        double magnitude = Math.abs(value);
+        int digits = Math.min(maxFractionDigits, MAX_FAST_DIGITS);
+
+        if(Double.isFinite(value)){
+            //Shortest decimal with at most maxFractionDigits digits that is equal to the value
+            double ulp = Math.ulp(magnitude);
+            for(int d = 0; d <= digits; d++){
+                double scale = POWERS_OF_TEN[d];
+                //Decimals closer than ulp may be indistinguishable - leave those to DecimalFormat
+                if(ulp * scale > 0.125)
+                    return appendFallback(out, value);
+                double scaled = magnitude * scale;
+                if(scaled >= MAX_EXACT_INTEGER)
+                    return appendFallback(out, value);
+                double rounded = Math.rint(scaled);
+                if(rounded / scale == magnitude)
+                    return appendDecimal(out, negative, (long) rounded, d);
+            }
+
+            //Value needs rounding - remainder of the scaled value is calculated exactly
+            if(maxFractionDigits <= MAX_FAST_DIGITS){
+                double scale = POWERS_OF_TEN[maxFractionDigits];
+                double rounded = Math.rint(magnitude * scale);
+                double remainder = Math.fma(magnitude, scale, -rounded);
+                if(remainder > 0.5){
+                    rounded++;
+                    remainder--;
+                } else if(remainder < -0.5){
+                    rounded--;
+                    remainder++;
+                }
+                double margin = 2 * Math.ulp(magnitude) * scale;
+                if(Math.abs(Math.abs(remainder) - 0.5) > margin)
+                    return appendDecimal(out, negative, (long) rounded, maxFractionDigits);
+            }
+        }
+        return appendFallback(out, value);
+    }
+
+    /**
+     * Appends a decimal number given as an integer and number of fraction digits,
+     * without trailing zeros.
+     *
+     * @param out Appendable receiving the number.
+     * @param negative true if a minus sign should be written.
+     * @param unscaled digits of the number.
+     * @param fractionDigits number of digits of unscaled after the decimal point.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    private static Appendable appendDecimal(Appendable out, boolean negative,
+                                            long unscaled, int fractionDigits) throws IOException{
+        //Remove trailing zeros
+        while(fractionDigits > 0 && unscaled % 10 == 0){
+            unscaled /= 10;
+            fractionDigits--;
+        }
+        if(negative)
+            out.append('-');
+
+        long power = LONG_POWERS_OF_TEN[fractionDigits];
+        appendDigits(out, unscaled / power, 1);
+        if(fractionDigits > 0){
+            out.append('.');
+            appendDigits(out, unscaled % power, fractionDigits);
+        }
+        return out;
+    }
+
+    /**
+     * Appends digits of a non-negative integer, padded with leading zeros.
+     *
+     * @param out Appendable receiving the digits.
+     * @param number written integer.
+     * @param minDigits minimum number of written digits.
+     * @throws IOException if the Appendable fails.
+     */
+    private static void appendDigits(Appendable out, long number, int minDigits) throws IOException{
+        int length = minDigits;
+        while(length < LONG_POWERS_OF_TEN.length && number >= LONG_POWERS_OF_TEN[length]){
+            length++;
+        }
+        for(int i = length - 1; i >= 0; i--){
+            long power = LONG_POWERS_OF_TEN[i];
+            out.append((char) ('0' + number / power));
+            number %= power;
+        }
+    }
+
+    /**
+     * Appends a value formatted with DecimalFormat.
+     *
+     * @param out Appendable receiving the value.
+     * @param value formatted value.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    private Appendable appendFallback(Appendable out, double value) throws IOException{
+        DecimalFormat df = FALLBACK.get();
+        df.setMaximumFractionDigits(maxFractionDigits);
+        return out.append(df.format(value));
+    }
+}
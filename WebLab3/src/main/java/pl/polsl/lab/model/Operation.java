@@ -1,9 +1,7 @@
 package pl.polsl.lab.model;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
 
 //public class Operation implements Serializable{
 //    
@@ -51,6 +49,32 @@ import java.util.Locale;
  * @param value floating point number taking role of the operand.
  */
 public record Operation (char operator, double value){
+    /** Formatter writing operands with up to 16 fraction digits.*/
+    static final NumberFormatter FORMATTER = new NumberFormatter(16);
+    
+    /**
+     * Appends the operator and the value unseparated by spaces.
+     * 
+     * @param builder StringBuilder receiving the text.
+     * @return the passed StringBuilder.
+     */
+    public StringBuilder appendTo(StringBuilder builder){
+        builder.append(operator);
+        return FORMATTER.appendTo(builder, value);
+    }
+    
+    /**
+     * Appends the operator and the value unseparated by spaces.
+     * 
+     * @param out Appendable receiving the text.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    public Appendable appendTo(Appendable out) throws IOException{
+        out.append(operator);
+        return FORMATTER.appendTo(out, value);
+    }
+    
     /**
      * Converts record to String.
      * 
@@ -58,9 +82,6 @@ public record Operation (char operator, double value){
      */
     @Override
     public String toString(){
-        DecimalFormat df = new DecimalFormat("0.#");
-        df.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.ENGLISH));
-        df.setMaximumFractionDigits(16);
-        return operator + df.format(value);
+        return appendTo(new StringBuilder(24)).toString();
     }  
-}
\ No newline at end of file
+}
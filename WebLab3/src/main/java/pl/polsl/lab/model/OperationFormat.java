@@ -34,6 +34,8 @@ public class OperationFormat {
     
     /**
      * Checks if entered text matches the regex.
+     * Uses OperationSequenceLexer, which accepts the same texts without regex matching,
+     * except for operands too small to be stored.
      * 
      * @param text entered text.
      * @return true if text matches regex
@@ -41,6 +43,6 @@ public class OperationFormat {
     public Boolean checkCorrectness(String text){
         if(text == null)
             throw new IllegalArgumentException("Tested string was null.");
-        return text.matches(opSequenceRegex.pattern());
+        return OperationSequenceLexer.isValid(text);
     }
 }
@@ -1,28 +1,49 @@
 package pl.polsl.lab.model;
 
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Class containing an array of ordered mathematical operations.
+ * Immutable class containing an array of ordered mathematical operations.
+ * Operations are stored in two parallel primitive arrays (operator codes and operands)
+ * instead of separate Operation records, so a sequence takes a few bytes per operation
+ * and can be calculated without following references. Operation records are created
+ * only when the sequence is accessed through get() or the iterator.
+ * Sequences are never modified after creation, so they can be shared without copying.
  * 
- * @version 2.0
+ * @version 4.0
  * @author Kinga Adamczak
  */
 public class OperationSequence implements Iterable<Operation>, Serializable{
-    /** Array containing singular operations.*/
-    private ArrayList<Operation> data;
+    /** Code of the addition operator.*/
+    static final byte ADD = 0;
+    /** Code of the subtraction operator.*/
+    static final byte SUBTRACT = 1;
+    /** Code of the multiplication operator.*/
+    static final byte MULTIPLY = 2;
+    /** Code of the division operator.*/
+    static final byte DIVIDE = 3;
+    
+    /** Shared array of an empty sequence.*/
+    private static final byte[] NO_OPCODES = new byte[0];
+    /** Shared array of an empty sequence.*/
+    private static final double[] NO_OPERANDS = new double[0];
+    
+    /** Operator codes of singular operations.*/
+    private final byte[] opcodes;
+    /** Operands of singular operations, parallel to opcodes.*/
+    private final double[] operands;
     
     /**
      * Constructor initializing data array.
      */
     public OperationSequence(){
-        data = new ArrayList<>();
+        opcodes = NO_OPCODES;
+        operands = NO_OPERANDS;
     }
     
     /**
@@ -30,58 +51,77 @@ public class OperationSequence implements Iterable<Operation>, Serializable{
      * 
      * @param operations String with mathematical operations typed one after another
      *                   without spaces.
+     * @throws InvalidOperationSequenceException if operations don't match the operation format.
      */
     public OperationSequence(String operations){
-        data = new ArrayList<>();    
-        loadIndividualOperations(operations);
+        OperationSequence loaded = OperationSequenceLexer.parse(operations);
+        opcodes = loaded.opcodes;
+        operands = loaded.operands;
     }
     
     /**
-     * Copy constructor that makes a deep copy of all Operation
-     * records from the passed OperationSequence type object.
+     * Copy constructor. As sequences are immutable, the copy shares
+     * data arrays with the passed OperationSequence type object.
      * 
      * @param seq OperationSequence record to be copied.
      */
     public OperationSequence(OperationSequence seq){    
-        this.data = new ArrayList<>();
-        for(Operation o : seq){
-            this.data.add(new Operation(o.operator(), o.value()));
-        }
+        this.opcodes = seq.opcodes;
+        this.operands = seq.operands;
     }
     
     /**
-     * Loads data array with individual Operation records 
-     * created based on input String.
+     * Constructor taking ownership of already filled arrays.
      * 
-     * @param operations operation sequence entered as String
-     *                   to be divided into individual Operation records.
+     * @param codes operator codes, not modified afterwards.
+     * @param values operands parallel to codes, not modified afterwards.
      */
-    private void loadIndividualOperations(String operations){
-        OperationFormat format = new OperationFormat();
-        Pattern sequenceRegex = format.getOpSequenceRegex();
-        Pattern singleOpRegex = Pattern.compile("([\\+\\-\\*\\/]\\d+(\\.\\d+)?)");
-        
-        Matcher matcher = sequenceRegex.matcher(operations);
-        
-        matcher = singleOpRegex.matcher(operations);
-        while(matcher.find()){
-            String individualOperation = matcher.group(0);
-            char operator = individualOperation.charAt(0);
-            double value = Double.parseDouble(individualOperation.substring(1));       
-            
-            this.data.add(new Operation(operator, value));
-        } 
+    OperationSequence(byte[] codes, double[] values){
+        this.opcodes = codes.length == 0 ? NO_OPCODES : codes;
+        this.operands = values.length == 0 ? NO_OPERANDS : values;
     }
     
     /**
-     * Returns clone of Operation record corresponding to entered index.
+     * Returns code of a mathematical operator.
+     * 
+     * @param operator operator symbol (+ - * /).
+     * @return code of the operator.
+     */
+    static byte toOpcode(char operator){
+        return switch(operator){
+                case '+' -> ADD;
+                case '-' -> SUBTRACT;
+                case '*' -> MULTIPLY;
+                case '/' -> DIVIDE;
+                default -> throw new IllegalArgumentException("Unknown operator: " + operator);
+            };
+    }
+    
+    /**
+     * Returns mathematical operator with the given code.
+     * 
+     * @param opcode code of the operator.
+     * @return operator symbol (+ - * /).
+     */
+    static char toOperator(byte opcode){
+        return switch(opcode){
+                case ADD -> '+';
+                case SUBTRACT -> '-';
+                case MULTIPLY -> '*';
+                case DIVIDE -> '/';
+                default -> throw new IllegalArgumentException();
+            };
+    }
+    
+    /**
+     * Returns Operation record corresponding to entered index.
      * 
      * @param index entered index.
-     * @return Operation clone of record corresponding to entered index.
+     * @return Operation record corresponding to entered index.
      */
     public Operation get(int index){
-        Operation o = this.data.get(index);
-        return new Operation(o.operator(), o.value());
+        Objects.checkIndex(index, opcodes.length);
+        return new Operation(toOperator(opcodes[index]), operands[index]);
     }
     
     /**
@@ -90,81 +130,161 @@ public class OperationSequence implements Iterable<Operation>, Serializable{
      * @return amount of operations.
      */
     public int length(){
-        return data.size();
+        return opcodes.length;
     }
     
     /**
-     * Adds sequences to the end of data array.
+     * Returns a sequence consisting of operations of this sequence
+     * followed by operations of the passed sequence. Neither sequence is changed.
      * 
-     * @param opSeq sequence to be added.
+     * @param opSeq sequence to be added at the end.
+     * @return joined sequence.
      */
-    public void add(OperationSequence opSeq){
+    public OperationSequence add(OperationSequence opSeq){
         if(opSeq == null){
             throw new IllegalArgumentException("Tried to add a null sequence.");
         }
-        if(opSeq == this){
-            throw new IllegalArgumentException("Tried to add same object.");
-        }
+        if(opSeq.length() == 0)
+            return this;
+        if(length() == 0)
+            return opSeq;
+        
+        int count = opcodes.length + opSeq.opcodes.length;
+        byte[] codes = Arrays.copyOf(opcodes, count);
+        double[] values = Arrays.copyOf(operands, count);
+        System.arraycopy(opSeq.opcodes, 0, codes, opcodes.length, opSeq.opcodes.length);
+        System.arraycopy(opSeq.operands, 0, values, operands.length, opSeq.operands.length);
+        return new OperationSequence(codes, values);
+    }
+    
+    /**
+     * Returns a sequence with reversed order of operations
+     * and inverted mathematical operators. This sequence isn't changed.
+     * 
+     * @return inverted sequence.
+     */
+    public OperationSequence invert(){
+        int count = opcodes.length;
+        byte[] reversedOpcodes = new byte[count];
+        double[] reversedOperands = new double[count];
         
-        for(Operation o : opSeq){
-            this.data.add(o);
+        for(int i = 0; i < count; i++){
+            //Codes of opposite operators differ only in the lowest bit
+            reversedOpcodes[count - 1 - i] = (byte)(opcodes[i] ^ 1);
+            reversedOperands[count - 1 - i] = operands[i];
         }
+        return new OperationSequence(reversedOpcodes, reversedOperands);
     }
     
     /**
-     * Returns an inverted mathematical operator.
+     * Returns value transformed by all operations, one after another.
      * 
-     * @param operator original operator.
-     * @return operator symbol opposite to the entered one.
+     * @param value original value.
+     * @return transformed value.
      */
-    private char invertOperator(char operator){
-        return switch(operator){
-                case '+' -> '-';
-                case '-' -> '+';
-                case '*' -> '/';
-                case '/' -> '*';
+    double calculate(double value){
+        byte[] codes = opcodes;
+        double[] values = operands;
+        double result = value;
+        for(int i = 0; i < codes.length; i++){
+            switch(codes[i]){
+                case ADD -> result += values[i];
+                case SUBTRACT -> result -= values[i];
+                case MULTIPLY -> result *= values[i];
+                case DIVIDE -> result /= values[i];
                 default -> throw new IllegalArgumentException();
-            };
+            }
+        }
+        return result;
     }
     
     /**
-     * Fills the data array with reversed order of operations
-     * and inverted mathematical operators.
+     * Folds all operations into a single transform.
+     * 
+     * @return transform giving the same result as calculating operations one after another.
      */
-    public void invert(){
-        ArrayList<Operation> reversedSequence = new ArrayList<>();
-        ListIterator reverseIterator = data.listIterator(data.size());
-        
-        while(reverseIterator.hasPrevious()) {
-            Operation op = (Operation) reverseIterator.previous();         
-            char invertedOperator = invertOperator(op.operator());       
-            reversedSequence.add(new Operation(invertedOperator, op.value()));
+    AffineTransform fold(){
+        byte[] codes = opcodes;
+        double[] values = operands;
+        double scale = 1;
+        double offset = 0;
+        for(int i = 0; i < codes.length; i++){
+            double value = values[i];
+            switch(codes[i]){
+                case ADD -> offset += value;
+                case SUBTRACT -> offset -= value;
+                case MULTIPLY -> { scale *= value; offset *= value; }
+                case DIVIDE -> { scale /= value; offset /= value; }
+                default -> throw new IllegalArgumentException();
+            }
+        }
+        return new AffineTransform(scale, offset);
+    }
+    
+    /**
+     * Appends all operations unseparated by spaces.
+     * 
+     * @param builder StringBuilder receiving the text.
+     * @return the passed StringBuilder.
+     */
+    public StringBuilder appendTo(StringBuilder builder){
+        for(int i = 0; i < opcodes.length; i++){
+            builder.append(toOperator(opcodes[i]));
+            Operation.FORMATTER.appendTo(builder, operands[i]);
+        }
+        return builder;
+    }
+    
+    /**
+     * Appends all operations unseparated by spaces.
+     * 
+     * @param out Appendable receiving the text.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    public Appendable appendTo(Appendable out) throws IOException{
+        for(int i = 0; i < opcodes.length; i++){
+            out.append(toOperator(opcodes[i]));
+            Operation.FORMATTER.appendTo(out, operands[i]);
         }
-        this.data = reversedSequence;
+        return out;
     }
     
     /**
-     * Converts all Operation records to a singular String.
+     * Converts all operations to a singular String.
      * 
-     * @return String consisting of Operation records unseparated by spaces.
+     * @return String consisting of operations unseparated by spaces.
      */
     @Override
     public String toString(){
-        String result = "";
-        for(Operation o : data){
-            result += o.toString();
-        }
-        return result;
+        return appendTo(new StringBuilder(opcodes.length * 8)).toString();
     }
     
     /**
-     * Returns an iterator for internal data.
+     * Returns an iterator creating Operation records from internal data.
      * 
-     * @return iterator for ArrayList of Operation records.
+     * @return read-only iterator over Operation records.
      */
     @Override
     public Iterator<Operation> iterator() {
-        return data.iterator();
+        return new Iterator<>(){
+            /** Index of the next returned operation.*/
+            private int next = 0;
+            
+            @Override
+            public boolean hasNext(){
+                return next < opcodes.length;
+            }
+            
+            @Override
+            public Operation next(){
+                if(next >= opcodes.length)
+                    throw new NoSuchElementException();
+                Operation o = new Operation(toOperator(opcodes[next]), operands[next]);
+                next++;
+                return o;
+            }
+        };
     }
     
     /**
@@ -183,14 +303,8 @@ public class OperationSequence implements Iterable<Operation>, Serializable{
         if (o instanceof OperationSequence) {
             OperationSequence opSeq =  (OperationSequence)o;
             
-            if(this.length() != opSeq.length())
-                return false;
-            
-            for(int i = 0; i < data.size(); i++){
-                if(!data.get(i).equals(opSeq.get(i)))
-                    return false;
-            }
-            return true;
+            return Arrays.equals(opcodes, opSeq.opcodes)
+                && Arrays.equals(operands, opSeq.operands);
         }
         return false; 
     }
@@ -203,7 +317,8 @@ public class OperationSequence implements Iterable<Operation>, Serializable{
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 97 * hash + Objects.hashCode(this.data);
+        hash = 97 * hash + Arrays.hashCode(opcodes);
+        hash = 97 * hash + Arrays.hashCode(operands);
         return hash;
     }
     
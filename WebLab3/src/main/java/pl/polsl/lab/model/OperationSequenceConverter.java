@@ -6,9 +6,10 @@ import jakarta.persistence.Converter;
 /**
  * Class for automatic conversion between OperationSequence (class used in application logic)
  * and a String (text representation used in the database).
+ * Stored texts are parsed in the tolerant mode of OperationSequenceLexer.
  * 
  * @author Kinga Adamczak
- * @version 1.0
+ * @version 1.1
  */
 @Converter(autoApply=true)
 public class OperationSequenceConverter implements AttributeConverter<OperationSequence, String> {
@@ -20,7 +21,7 @@ public class OperationSequenceConverter implements AttributeConverter<OperationS
 
     @Override
     public OperationSequence convertToEntityAttribute(String dbData) {
-       return new OperationSequence(dbData);
+       return OperationSequenceLexer.parseStored(dbData);
     }
     
 }
\ No newline at end of file
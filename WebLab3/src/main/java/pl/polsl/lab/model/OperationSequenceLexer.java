@@ -0,0 +1,207 @@
+package pl.polsl.lab.model;
+
+import java.util.Arrays;
+
+/**
+ * Class parsing operation sequences written as text, for example "-273.15*9/5+32".
+ * Accepts exactly the texts matched by the OperationFormat regex: one or more operators
+ * (+ - * /), each immediately followed by a non-zero number without a sign or exponent.
+ * Operands also have to be written back the same way sequences are stored, so an operand
+ * too small to be written with 16 fraction digits is rejected.
+ *
+ * Sequences loaded from the database are parsed in a tolerant mode, which also accepts
+ * operands written as "0" or with leading zeros, as older versions stored them.
+ *
+ * Text is validated and converted in a single pass over its characters, without
+ * regex matching or creating substrings. Operands are built from their digits;
+ * a decimal number is converted with one correctly rounded multiplication or division
+ * whenever its digits and exponent are exactly representable, which gives
+ * the same result as Double.parseDouble. Only numbers too long for that
+ * fall back to Double.parseDouble.
+ *
+ * @version 1.1
+ * @author Kinga Adamczak
+ */
+public final class OperationSequenceLexer {
+    /** Largest integer up to which every integer is exactly representable as a double.*/
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /** Powers of ten exactly representable as doubles.*/
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Class only contains static methods.
+     */
+    private OperationSequenceLexer(){
+    }
+
+    /**
+     * Checks if entered text is a correct operation sequence.
+     *
+     * @param text entered text.
+     * @return true if text would be parsed without an exception.
+     */
+    public static boolean isValid(CharSequence text){
+        if(text == null)
+            throw new IllegalArgumentException("Tested string was null.");
+        try{
+            parse(text);
+            return true;
+        }catch(InvalidOperationSequenceException e){
+            return false;
+        }
+    }
+
+    /**
+     * Parses an entered operation sequence.
+     *
+     * @param text operations typed one after another without spaces.
+     * @return parsed operation sequence.
+     * @throws InvalidOperationSequenceException if the text isn't a correct
+     *         operation sequence, with the index of the first incorrect character.
+     */
+    public static OperationSequence parse(CharSequence text){
+        return parse(text, true);
+    }
+
+    /**
+     * Parses a stored operation sequence. Operands equal to zero and operands
+     * with leading zeros are accepted, so rows written by earlier versions can be loaded.
+     *
+     * @param text operations written one after another without spaces.
+     * @return parsed operation sequence.
+     * @throws InvalidOperationSequenceException if the text isn't an operation sequence,
+     *         with the index of the first incorrect character.
+     */
+    public static OperationSequence parseStored(CharSequence text){
+        return parse(text, false);
+    }
+
+    /**
+     * Parses an operation sequence.
+     *
+     * @param text operations written one after another without spaces.
+     * @param strict true to accept only entered sequences, false to accept stored ones.
+     * @return parsed operation sequence.
+     * @throws InvalidOperationSequenceException if the text isn't a correct
+     *         operation sequence, with the index of the first incorrect character.
+     */
+    private static OperationSequence parse(CharSequence text, boolean strict){
+        if(text == null)
+            throw new IllegalArgumentException("Parsed operation sequence was null.");
+
+        int length = text.length();
+        if(length == 0)
+            throw new InvalidOperationSequenceException("Operation sequence is empty.", 0);
+
+        byte[] codes = new byte[4];
+        double[] values = new double[4];
+        int count = 0;
+
+        int i = 0;
+        while(i < length){
+            //Operator
+            byte opcode = switch(text.charAt(i)){
+                case '+' -> OperationSequence.ADD;
+                case '-' -> OperationSequence.SUBTRACT;
+                case '*' -> OperationSequence.MULTIPLY;
+                case '/' -> OperationSequence.DIVIDE;
+                default -> throw new InvalidOperationSequenceException("Expected an operator (+ - * /).", i);
+            };
+            i++;
+
+            //Integer part of the operand - "0" or digits not starting with zero
+            int start = i;
+            if(i == length || !isDigit(text.charAt(i)))
+                throw new InvalidOperationSequenceException("Expected a number after the operator.", i);
+
+            long mantissa = 0;
+            int exponent = 0;
+            boolean exact = true;
+            boolean zeroIntegerPart = text.charAt(i) == '0';
+            if(zeroIntegerPart && strict){
+                i++;
+                if(i == length || text.charAt(i) != '.')
+                    throw new InvalidOperationSequenceException("Expected a decimal point after a leading zero.", i);
+            } else {
+                while(i < length && isDigit(text.charAt(i))){
+                    if(mantissa <= (Long.MAX_VALUE - 9) / 10)
+                        mantissa = mantissa * 10 + (text.charAt(i) - '0');
+                    else
+                        exact = false;
+                    i++;
+                }
+            }
+
+            //Fractional part of the operand
+            boolean nonZeroFraction = false;
+            if(i < length && text.charAt(i) == '.'){
+                i++;
+                int fractionStart = i;
+                while(i < length && isDigit(text.charAt(i))){
+                    char digit = text.charAt(i);
+                    nonZeroFraction |= digit != '0';
+                    if(mantissa <= (Long.MAX_VALUE - 9) / 10){
+                        mantissa = mantissa * 10 + (digit - '0');
+                        exponent--;
+                    } else
+                        exact = false;
+                    i++;
+                }
+                if(i == fractionStart)
+                    throw new InvalidOperationSequenceException("Expected a digit after the decimal point.", i);
+            }
+            if(zeroIntegerPart && !nonZeroFraction && strict)
+                throw new InvalidOperationSequenceException("Operand can't be equal to zero.", start);
+
+            double value = exact ? toDouble(mantissa, exponent) : Double.NaN;
+            if(Double.isNaN(value))
+                value = Double.parseDouble(text.subSequence(start, i).toString());
+            //Only the smallest operands can be written as zero
+            if(strict && value < 1e-15 && Double.parseDouble(Operation.FORMATTER.format(value)) == 0)
+                throw new InvalidOperationSequenceException("Operand is too small to be stored.", start);
+
+            if(count == codes.length){
+                codes = Arrays.copyOf(codes, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            codes[count] = opcode;
+            values[count] = value;
+            count++;
+        }
+        return new OperationSequence(Arrays.copyOf(codes, count), Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Checks if a character is an ASCII digit (same as \d in the OperationFormat regex).
+     *
+     * @param c checked character.
+     * @return true if the character is between '0' and '9'.
+     */
+    private static boolean isDigit(char c){
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns value of mantissa * 10^exponent, if it can be calculated
+     * with a single correctly rounded operation.
+     *
+     * @param mantissa decimal digits of the number.
+     * @param exponent power of ten the mantissa is multiplied by.
+     * @return correctly rounded value, NaN if it can't be calculated exactly this way.
+     */
+    private static double toDouble(long mantissa, int exponent){
+        //Move trailing zeros of large integers to the exponent
+        while(mantissa > MAX_EXACT_MANTISSA && mantissa % 10 == 0){
+            mantissa /= 10;
+            exponent++;
+        }
+        if(mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22)
+            return Double.NaN;
+        if(exponent < 0)
+            return mantissa / POWERS_OF_TEN[-exponent];
+        return mantissa * POWERS_OF_TEN[exponent];
+    }
+}
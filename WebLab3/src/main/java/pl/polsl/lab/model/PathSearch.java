@@ -0,0 +1,26 @@
+package pl.polsl.lab.model;
+
+/**
+ * Enum listing algorithms the Converter class can use to find
+ * a path of conversions between two units.
+ * 
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public enum PathSearch {
+    /** Breadth-first search performed directly on the container's adjacency lists.*/
+    BREADTH_FIRST,
+    /** Breadth-first search performed on a compact, integer-encoded copy of the graph.
+        The copy is rebuilt after the container is modified, so this mode suits
+        catalogs that are searched much more often than they change.*/
+    COMPACT_GRAPH,
+    /** Two breadth-first searches, from the original and from the target unit, meeting in the middle.
+        Visits far fewer units than BREADTH_FIRST when the units are far apart in a large graph,
+        and still finds a path with the smallest number of conversions.*/
+    BIDIRECTIONAL,
+    /** No search - the conversion is composed from transforms of both units to the root unit
+        of their component, which the container keeps up to date. Fastest for distant units,
+        but the result follows a spanning tree of the component instead of the shortest path,
+        which matters only if conversions along different paths aren't consistent.*/
+    SPANNING_TREE
+}
@@ -0,0 +1,311 @@
+package pl.polsl.lab.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Immutable exact fraction, always kept in lowest terms with a positive denominator.
+ * Numerator and denominator are stored as longs while they fit and as BigIntegers
+ * otherwise, so typical calculations don't allocate big numbers, but no operation
+ * can overflow.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public final class Rational {
+    /** Fraction equal to 0.*/
+    public static final Rational ZERO = new Rational(0, 1, null, null);
+    /** Fraction equal to 1.*/
+    public static final Rational ONE = new Rational(1, 1, null, null);
+
+    /** Largest integer up to which every integer is exactly representable as a double.*/
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+    /** Minimum number of bits of the quotient calculated when converting big fractions to double.*/
+    private static final int QUOTIENT_BITS = 65;
+
+    /** Numerator, if bigNumerator is null.*/
+    private final long numerator;
+    /** Denominator, if bigDenominator is null.*/
+    private final long denominator;
+    /** Numerator too large for a long, null otherwise.*/
+    private final BigInteger bigNumerator;
+    /** Denominator of a fraction with a numerator or denominator too large for a long, null otherwise.*/
+    private final BigInteger bigDenominator;
+
+    /**
+     * Constructor setting already normalized fields.
+     *
+     * @param num numerator if the fraction fits in longs.
+     * @param den denominator if the fraction fits in longs.
+     * @param bigNum numerator if the fraction doesn't fit in longs, null otherwise.
+     * @param bigDen denominator if the fraction doesn't fit in longs, null otherwise.
+     */
+    private Rational(long num, long den, BigInteger bigNum, BigInteger bigDen){
+        this.numerator = num;
+        this.denominator = den;
+        this.bigNumerator = bigNum;
+        this.bigDenominator = bigDen;
+    }
+
+    /**
+     * Creates a fraction reduced to lowest terms.
+     *
+     * @param numerator numerator.
+     * @param denominator denominator, not equal to 0.
+     * @return fraction numerator/denominator.
+     */
+    public static Rational of(long numerator, long denominator){
+        if(denominator == 0)
+            throw new ArithmeticException("Denominator is equal to zero.");
+        if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+            return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+
+        if(denominator < 0){
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new Rational(numerator / gcd, denominator / gcd, null, null);
+    }
+
+    /**
+     * Creates a fraction reduced to lowest terms.
+     *
+     * @param numerator numerator.
+     * @param denominator denominator, not equal to 0.
+     * @return fraction numerator/denominator.
+     */
+    public static Rational of(BigInteger numerator, BigInteger denominator){
+        if(denominator.signum() == 0)
+            throw new ArithmeticException("Denominator is equal to zero.");
+        if(denominator.signum() < 0){
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if(!gcd.equals(BigInteger.ONE)){
+            numerator = numerator.divide(gcd);
+            denominator = denominator.divide(gcd);
+        }
+        //Long.MIN_VALUE is kept as a BigInteger, so negating long fields can't overflow
+        if(numerator.bitLength() < Long.SIZE - 1 && denominator.bitLength() < Long.SIZE - 1)
+            return new Rational(numerator.longValue(), denominator.longValue(), null, null);
+        return new Rational(0, 0, numerator, denominator);
+    }
+
+    /**
+     * Creates a fraction equal to the shortest decimal representation of a double
+     * (the one returned by Double.toString), for example 0.1 for the double nearest to 0.1.
+     * Operands of operation sequences are written as decimals, so this
+     * recovers the decimal the user entered instead of its binary approximation.
+     *
+     * @param value finite value.
+     * @return fraction equal to the decimal representation of the value.
+     */
+    public static Rational valueOf(double value){
+        if(!Double.isFinite(value))
+            throw new IllegalArgumentException("Only finite values can be converted to a fraction.");
+
+        BigDecimal decimal = BigDecimal.valueOf(value);
+        BigInteger unscaled = decimal.unscaledValue();
+        int scale = decimal.scale();
+        if(scale <= 0)
+            return of(unscaled.multiply(BigInteger.TEN.pow(-scale)), BigInteger.ONE);
+        return of(unscaled, BigInteger.TEN.pow(scale));
+    }
+
+    /**
+     * Returns numerator of the fraction in lowest terms.
+     *
+     * @return numerator.
+     */
+    public BigInteger getNumerator(){
+        return bigNumerator != null ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+
+    /**
+     * Returns denominator of the fraction in lowest terms.
+     *
+     * @return positive denominator.
+     */
+    public BigInteger getDenominator(){
+        return bigDenominator != null ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
+    /**
+     * Returns sign of the fraction.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int signum(){
+        return bigNumerator != null ? bigNumerator.signum() : Long.signum(numerator);
+    }
+
+    /**
+     * Returns sum of two fractions.
+     *
+     * @param other added fraction.
+     * @return this + other.
+     */
+    public Rational add(Rational other){
+        if(bigNumerator == null && other.bigNumerator == null){
+            try{
+                if(denominator == other.denominator)
+                    return of(Math.addExact(numerator, other.numerator), denominator);
+                long num = Math.addExact(Math.multiplyExact(numerator, other.denominator),
+                                         Math.multiplyExact(other.numerator, denominator));
+                return of(num, Math.multiplyExact(denominator, other.denominator));
+            }catch(ArithmeticException e){
+                //Result doesn't fit in longs
+            }
+        }
+        BigInteger num = getNumerator().multiply(other.getDenominator())
+                                       .add(other.getNumerator().multiply(getDenominator()));
+        return of(num, getDenominator().multiply(other.getDenominator()));
+    }
+
+    /**
+     * Returns difference of two fractions.
+     *
+     * @param other subtracted fraction.
+     * @return this - other.
+     */
+    public Rational subtract(Rational other){
+        return add(other.negate());
+    }
+
+    /**
+     * Returns product of two fractions.
+     *
+     * @param other multiplier.
+     * @return this * other.
+     */
+    public Rational multiply(Rational other){
+        if(bigNumerator == null && other.bigNumerator == null){
+            //Cross-reduce first, so the products stay small
+            long gcd1 = gcd(Math.abs(numerator), other.denominator);
+            long gcd2 = gcd(Math.abs(other.numerator), denominator);
+            try{
+                return of(Math.multiplyExact(numerator / gcd1, other.numerator / gcd2),
+                          Math.multiplyExact(denominator / gcd2, other.denominator / gcd1));
+            }catch(ArithmeticException e){
+                //Result doesn't fit in longs
+            }
+        }
+        return of(getNumerator().multiply(other.getNumerator()),
+                  getDenominator().multiply(other.getDenominator()));
+    }
+
+    /**
+     * Returns quotient of two fractions.
+     *
+     * @param other divisor, not equal to 0.
+     * @return this / other.
+     */
+    public Rational divide(Rational other){
+        return multiply(other.reciprocal());
+    }
+
+    /**
+     * Returns fraction with the opposite sign.
+     *
+     * @return -this.
+     */
+    public Rational negate(){
+        if(bigNumerator == null && numerator != Long.MIN_VALUE)
+            return new Rational(-numerator, denominator, null, null);
+        return of(getNumerator().negate(), getDenominator());
+    }
+
+    /**
+     * Returns inverse of the fraction.
+     *
+     * @return 1 / this.
+     */
+    public Rational reciprocal(){
+        if(signum() == 0)
+            throw new ArithmeticException("Division by zero.");
+        if(bigNumerator == null)
+            return of(denominator, numerator);
+        return of(bigDenominator, bigNumerator);
+    }
+
+    /**
+     * Returns the double nearest to the fraction.
+     *
+     * @return fraction rounded to a double.
+     */
+    public double doubleValue(){
+        if(bigNumerator == null && Math.abs(numerator) <= MAX_EXACT_INTEGER && denominator <= MAX_EXACT_INTEGER){
+            //Both values are exact doubles, so a single division is correctly rounded
+            return (double) numerator / denominator;
+        }
+
+        BigInteger num = getNumerator().abs();
+        BigInteger den = getDenominator();
+        //Calculate a quotient with more bits than a double has, marking a non-zero remainder in its last bit
+        int shift = den.bitLength() - num.bitLength() + QUOTIENT_BITS;
+        BigInteger[] quotient = shift >= 0 ? num.shiftLeft(shift).divideAndRemainder(den)
+                                           : num.divideAndRemainder(den.shiftLeft(-shift));
+        BigInteger bits = quotient[1].signum() == 0 ? quotient[0] : quotient[0].setBit(0);
+        double result = Math.scalb(bits.doubleValue(), -shift);
+        return signum() < 0 ? -result : result;
+    }
+
+    /**
+     * Returns greatest common divisor of two non-negative numbers.
+     *
+     * @param a first number.
+     * @param b second number.
+     * @return greatest common divisor, 1 if both numbers are equal to 0.
+     */
+    private static long gcd(long a, long b){
+        while(b != 0){
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+
+    /**
+     * Checks if compared object is a fraction with the same value.
+     *
+     * @param o compared object.
+     * @return true if both fractions are equal.
+     */
+    @Override
+    public boolean equals(Object o){
+        if(o == this)
+            return true;
+        if(!(o instanceof Rational))
+            return false;
+        Rational r = (Rational) o;
+        if(bigNumerator == null && r.bigNumerator == null)
+            return numerator == r.numerator && denominator == r.denominator;
+        return getNumerator().equals(r.getNumerator()) && getDenominator().equals(r.getDenominator());
+    }
+
+    /**
+     * Returns hash code of the fraction.
+     *
+     * @return hash code calculated from numerator and denominator.
+     */
+    @Override
+    public int hashCode(){
+        return 31 * getNumerator().hashCode() + getDenominator().hashCode();
+    }
+
+    /**
+     * Returns the fraction written as "numerator/denominator", or only the numerator
+     * if the denominator is equal to 1.
+     *
+     * @return fraction as a String.
+     */
+    @Override
+    public String toString(){
+        if(getDenominator().equals(BigInteger.ONE))
+            return getNumerator().toString();
+        return getNumerator() + "/" + getDenominator();
+    }
+}
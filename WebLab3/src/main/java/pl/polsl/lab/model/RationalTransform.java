@@ -0,0 +1,67 @@
+package pl.polsl.lab.model;
+
+/**
+ * Record storing an operation sequence reduced to the form y = scale * x + offset,
+ * like AffineTransform, but with exact fractions. Composing many transforms
+ * doesn't accumulate rounding errors - values are rounded only once,
+ * when the result is converted to an AffineTransform.
+ *
+ * @param scale value multiplying the converted value.
+ * @param offset value added after multiplication.
+ */
+record RationalTransform (Rational scale, Rational offset){
+    /** Transform that doesn't change the converted value.*/
+    static final RationalTransform IDENTITY = new RationalTransform(Rational.ONE, Rational.ZERO);
+
+    /**
+     * Folds an operation sequence into a single transform. Operands are read
+     * as the decimals they were written as (see Rational.valueOf(double)).
+     *
+     * @param operations folded sequence.
+     * @return transform giving the exact result of applying operations one after another.
+     */
+    static RationalTransform of(OperationSequence operations){
+        Rational scale = Rational.ONE;
+        Rational offset = Rational.ZERO;
+        for(int i = 0; i < operations.length(); i++){
+            Operation op = operations.get(i);
+            Rational value = Rational.valueOf(op.value());
+            switch(op.operator()){
+                case '+' -> offset = offset.add(value);
+                case '-' -> offset = offset.subtract(value);
+                case '*' -> { scale = scale.multiply(value); offset = offset.multiply(value); }
+                case '/' -> { scale = scale.divide(value); offset = offset.divide(value); }
+                default -> throw new IllegalArgumentException();
+            }
+        }
+        return new RationalTransform(scale, offset);
+    }
+
+    /**
+     * Returns transform equal to applying this transform and then the next one.
+     *
+     * @param next transform applied second.
+     * @return composed transform.
+     */
+    RationalTransform then(RationalTransform next){
+        return new RationalTransform(next.scale.multiply(scale), next.scale.multiply(offset).add(next.offset));
+    }
+
+    /**
+     * Returns transform reversing this one.
+     *
+     * @return inverse transform.
+     */
+    RationalTransform inverse(){
+        return new RationalTransform(scale.reciprocal(), offset.negate().divide(scale));
+    }
+
+    /**
+     * Rounds the transform to doubles.
+     *
+     * @return transform with scale and offset rounded to the nearest doubles.
+     */
+    AffineTransform toAffineTransform(){
+        return new AffineTransform(scale.doubleValue(), offset.doubleValue());
+    }
+}
@@ -0,0 +1,150 @@
+package pl.polsl.lab.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Disjoint-set (union-find) structure grouping units into connected components
+ * of the conversion graph. Two units are in the same component when a path
+ * of conversions exists between them. Uses union by rank, so component trees
+ * stay shallow and checking if two units are connected takes logarithmic time.
+ * Paths are compressed only while merging components - checking doesn't modify
+ * the structure, so it can be done by many reading threads at once.
+ * Components can't be split directly - after a conversion is deleted, units of the
+ * affected component are regrouped into the parts that remain connected.
+ *
+ * @version 1.2
+ * @author Kinga Adamczak
+ */
+final class UnitComponents {
+    /** Units mapped to their parent in the component tree (roots are mapped to themselves).*/
+    private final HashMap<String, String> parent;
+    /** Roots of component trees mapped to upper bounds of their height.*/
+    private final HashMap<String, Integer> rank;
+
+    /**
+     * Constructor initializing an empty structure.
+     */
+    UnitComponents(){
+        parent = new HashMap<>();
+        rank = new HashMap<>();
+    }
+
+    /**
+     * Returns the unit representing the component of the passed unit.
+     *
+     * @param unit searched for unit.
+     * @return root of the unit's component, null if the unit isn't known.
+     */
+    String find(String unit){
+        String root = parent.get(unit);
+        if(root == null)
+            return null;
+
+        while(!root.equals(parent.get(root))){
+            root = parent.get(root);
+        }
+        return root;
+    }
+
+    /**
+     * Merges components of both units, adding units that aren't known yet.
+     *
+     * @param unit1 first unit.
+     * @param unit2 second unit.
+     */
+    void union(String unit1, String unit2){
+        String root1 = findOrAdd(unit1);
+        String root2 = findOrAdd(unit2);
+        if(root1.equals(root2))
+            return;
+
+        int rank1 = rank.get(root1);
+        int rank2 = rank.get(root2);
+        if(rank1 < rank2){
+            parent.put(root1, root2);
+            rank.remove(root1);
+        } else {
+            parent.put(root2, root1);
+            rank.remove(root2);
+            if(rank1 == rank2)
+                rank.put(root1, rank1 + 1);
+        }
+    }
+
+    /**
+     * Returns root of the unit's component, creating a new single-unit component if needed.
+     * Units on the path to the root are moved directly under it.
+     *
+     * @param unit searched for unit.
+     * @return root of the unit's component.
+     */
+    private String findOrAdd(String unit){
+        String root = find(unit);
+        if(root == null){
+            parent.put(unit, unit);
+            rank.put(unit, 0);
+            return unit;
+        }
+
+        String current = unit;
+        while(!current.equals(root)){
+            current = parent.put(current, root);
+        }
+        return root;
+    }
+
+    /**
+     * Checks if both units are in the same component.
+     *
+     * @param unit1 first unit.
+     * @param unit2 second unit.
+     * @return true if both units are known and connected.
+     */
+    boolean connected(String unit1, String unit2){
+        String root1 = find(unit1);
+        return root1 != null && root1.equals(find(unit2));
+    }
+
+    /**
+     * Removes units from their component and makes them a new component.
+     * All units of the component they belonged to have to be regrouped,
+     * as other units may be linked to the component through them.
+     *
+     * @param units units of the new component.
+     */
+    void regroup(Collection<String> units){
+        for(String unit : units){
+            parent.remove(unit);
+            rank.remove(unit);
+        }
+        if(units.isEmpty())
+            return;
+
+        //Every unit is linked directly to the first one
+        String root = units.iterator().next();
+        for(String unit : units){
+            parent.put(unit, root);
+        }
+        rank.put(root, units.size() > 1 ? 1 : 0);
+    }
+
+    /**
+     * Removes a unit that is no longer included in any conversion.
+     * Other units of its former component have to be regrouped first.
+     *
+     * @param unit removed unit.
+     */
+    void remove(String unit){
+        parent.remove(unit);
+        rank.remove(unit);
+    }
+
+    /**
+     * Removes all units.
+     */
+    void clear(){
+        parent.clear();
+        rank.clear();
+    }
+}
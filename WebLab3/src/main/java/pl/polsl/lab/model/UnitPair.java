@@ -0,0 +1,35 @@
+package pl.polsl.lab.model;
+
+/**
+ * Record used as an order-insensitive key identifying a conversion
+ * between two units. Unit names are stored in lexicographical order,
+ * so the pair (a, b) is equal to the pair (b, a).
+ *
+ * @param first unit name that comes first lexicographically.
+ * @param second unit name that comes second lexicographically.
+ */
+record UnitPair (String first, String second){
+
+    /**
+     * Creates a key for two unit names. Order of units doesn't matter.
+     *
+     * @param unit1 first unit name.
+     * @param unit2 second unit name.
+     * @return key identifying a conversion between both units.
+     */
+    static UnitPair of(String unit1, String unit2){
+        if(unit1.compareTo(unit2) <= 0)
+            return new UnitPair(unit1, unit2);
+        return new UnitPair(unit2, unit1);
+    }
+
+    /**
+     * Creates a key for units included in a conversion.
+     *
+     * @param conversion conversion whose units form the key.
+     * @return key identifying a conversion between both units.
+     */
+    static UnitPair of(Conversion conversion){
+        return of(conversion.getOriginalUnit(), conversion.getTargetUnit());
+    }
+}
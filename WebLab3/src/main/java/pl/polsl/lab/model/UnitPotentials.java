@@ -0,0 +1,248 @@
+package pl.polsl.lab.model;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Class storing, for every unit of a ConversionContainer, a transform converting
+ * values measured in that unit to values measured in the root unit of its connected
+ * component ("potential" of the unit). Transforms follow a spanning tree of each component,
+ * so a conversion between any two connected units is the composition of the first
+ * unit's potential and the inverse of the second unit's potential.
+ *
+ * The tree is extended when conversions are added and repaired when
+ * a conversion belonging to the tree is deleted.
+ *
+ * @version 1.1
+ * @author Kinga Adamczak
+ */
+final class UnitPotentials {
+
+    /**
+     * Record storing position of a unit in the spanning tree.
+     *
+     * @param root root unit of the unit's component.
+     * @param parent unit preceding the unit on the tree path to the root, null for the root.
+     * @param toRoot transform converting values measured in the unit to the root unit.
+     */
+    private record Potential (String root, String parent, AffineTransform toRoot){}
+
+    /** Container whose conversions form the graph.*/
+    private final ConversionContainer container;
+    /** Units mapped to their position in the spanning tree.*/
+    private final HashMap<String, Potential> potentials;
+    /** Root units mapped to number of units in their components.*/
+    private final HashMap<String, Integer> componentSizes;
+
+    /**
+     * Constructor initializing empty potentials for a container.
+     *
+     * @param conv container whose conversions form the graph.
+     */
+    UnitPotentials(ConversionContainer conv){
+        container = conv;
+        potentials = new HashMap<>();
+        componentSizes = new HashMap<>();
+    }
+
+    /**
+     * Returns transform converting values measured in unit1 to values measured in unit2,
+     * composed from potentials of both units.
+     *
+     * @param unit1 original unit.
+     * @param unit2 target unit.
+     * @return transform between the units, null if they aren't connected.
+     */
+    AffineTransform transform(String unit1, String unit2){
+        Potential p1 = potentials.get(unit1);
+        Potential p2 = potentials.get(unit2);
+        if(p1 == null || p2 == null || !p1.root().equals(p2.root()))
+            return null;
+        return p1.toRoot().then(p2.toRoot().inverse());
+    }
+
+    /**
+     * Updates the spanning tree after a conversion has been added to the container.
+     *
+     * @param c added conversion.
+     */
+    void added(Conversion c){
+        String unit1 = c.getOriginalUnit();
+        String unit2 = c.getTargetUnit();
+        Potential p1 = potentials.get(unit1);
+        Potential p2 = potentials.get(unit2);
+
+        if(p1 == null && p2 == null){
+            setRoot(unit1);
+            componentSizes.put(unit1, 1);
+            p1 = potentials.get(unit1);
+        }
+        if(p2 == null){
+            attach(unit2, unit1, p1.root());
+            componentSizes.merge(p1.root(), 1, Integer::sum);
+        } else if(p1 == null){
+            attach(unit1, unit2, p2.root());
+            componentSizes.merge(p2.root(), 1, Integer::sum);
+        } else if(!p1.root().equals(p2.root())){
+            //Re-root the smaller component below the larger one
+            if(componentSizes.get(p1.root()) < componentSizes.get(p2.root()))
+                merge(unit1, unit2);
+            else
+                merge(unit2, unit1);
+        }
+    }
+
+    /**
+     * Updates the spanning tree after a conversion has been deleted from the container.
+     * Deleting a conversion outside of the tree doesn't change anything; otherwise
+     * the affected component is traversed again, as it may have been split in two.
+     *
+     * @param c deleted conversion.
+     * @return true if the conversion was a part of the tree, so its component may have been split.
+     */
+    boolean deleted(Conversion c){
+        String unit1 = c.getOriginalUnit();
+        String unit2 = c.getTargetUnit();
+        Potential p1 = potentials.get(unit1);
+        Potential p2 = potentials.get(unit2);
+
+        String child;
+        if(unit2.equals(p1.parent()))
+            child = unit1;
+        else if(unit1.equals(p2.parent()))
+            child = unit2;
+        else
+            return false;
+
+        String root = p1.root();
+        componentSizes.remove(root);
+        HashSet<String> visited = new HashSet<>();
+        rebuild(root, visited);
+        if(!visited.contains(child))
+            rebuild(child, visited);
+        return true;
+    }
+
+    /**
+     * Builds the trees of all components again, after many conversions
+     * have been added to the container at once.
+     *
+     * @param units all units included in conversions of the container.
+     */
+    void rebuild(Collection<String> units){
+        clear();
+        HashSet<String> visited = new HashSet<>();
+        for(String unit : units){
+            if(!visited.contains(unit))
+                rebuild(unit, visited);
+        }
+    }
+
+    /**
+     * Removes all potentials.
+     */
+    void clear(){
+        potentials.clear();
+        componentSizes.clear();
+    }
+
+    /**
+     * Makes the unit the root of a new component.
+     *
+     * @param unit new root.
+     */
+    private void setRoot(String unit){
+        potentials.put(unit, new Potential(unit, null, AffineTransform.IDENTITY));
+    }
+
+    /**
+     * Adds a unit to the tree as a child of a unit already in the tree.
+     *
+     * @param unit added unit.
+     * @param parent unit already in the tree.
+     * @param root root of the parent's component.
+     */
+    private void attach(String unit, String parent, String root){
+        AffineTransform toParent = edgeTransform(unit, parent);
+        AffineTransform toRoot = toParent.then(potentials.get(parent).toRoot());
+        potentials.put(unit, new Potential(root, parent, toRoot));
+    }
+
+    /**
+     * Moves the whole component of unit below the other unit, from another component.
+     * The added conversion between both units must be the only one connecting the components.
+     *
+     * @param unit unit of the moved (smaller) component.
+     * @param other unit of the component that stays in place.
+     */
+    private void merge(String unit, String other){
+        String oldRoot = potentials.get(unit).root();
+        String newRoot = potentials.get(other).root();
+        int movedSize = componentSizes.remove(oldRoot);
+
+        attach(unit, other, newRoot);
+        HashSet<String> visited = new HashSet<>();
+        visited.add(other);
+        traverse(unit, newRoot, visited);
+        componentSizes.merge(newRoot, movedSize, Integer::sum);
+    }
+
+    /**
+     * Creates the tree of the unit's component again, with the unit as its root.
+     * A unit that isn't included in any conversion anymore is removed instead.
+     *
+     * @param root new root of the component.
+     * @param visited units already assigned to a component, filled out by the method.
+     */
+    private void rebuild(String root, HashSet<String> visited){
+        if(!container.containsUnit(root)){
+            potentials.remove(root);
+            visited.add(root);
+            return;
+        }
+        setRoot(root);
+        componentSizes.put(root, traverse(root, root, visited));
+    }
+
+    /**
+     * Assigns potentials to all units reachable from start that haven't been
+     * visited yet, using a breadth-first search. Start must already have
+     * its new potential assigned.
+     *
+     * @param start unit from which the search begins.
+     * @param root root of the component units are assigned to.
+     * @param visited units that shouldn't be assigned, filled out by the method.
+     * @return number of assigned units (including start).
+     */
+    private int traverse(String start, String root, HashSet<String> visited){
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        visited.add(start);
+        int count = 1;
+
+        while(!queue.isEmpty()){
+            String current = queue.poll();
+            for(String next : container.getNeighbors(current)){
+                if(!visited.add(next))
+                    continue;
+                attach(next, current, root);
+                queue.add(next);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns transform converting values from one unit to its direct neighbor.
+     *
+     * @param unit original unit.
+     * @param neighbor target unit, directly connected to the original unit.
+     * @return transform of the conversion between the units, in the right direction.
+     */
+    private AffineTransform edgeTransform(String unit, String neighbor){
+        return container.getEdgeTransform(unit, neighbor);
+    }
+}
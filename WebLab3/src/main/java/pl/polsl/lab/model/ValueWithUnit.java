@@ -1,8 +1,6 @@
 package pl.polsl.lab.model;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.io.IOException;
 
 /**
  * Class representing a value and its associated unit.
@@ -11,6 +9,9 @@ import java.util.Locale;
  * @author Kinga Adamczak
  */
 public class ValueWithUnit {
+    /** Formatter writing values with up to 5 fraction digits.*/
+    private static final NumberFormatter FORMATTER = new NumberFormatter(5);
+    
     /** Numeric value.*/
     private double value;
     /** Record containing name of unit. It ensures that the format of name is correct. */
@@ -90,10 +91,30 @@ public class ValueWithUnit {
      */
     @Override
     public String toString(){
-        DecimalFormat df = new DecimalFormat("0.#");
-        df.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.ENGLISH));
-        df.setMaximumFractionDigits(5);
-        return df.format(value) + " " + unit;
+        return appendTo(new StringBuilder(32)).toString();
+    }
+    
+    /**
+     * Appends value and unit name separated by space.
+     * 
+     * @param builder StringBuilder receiving the text.
+     * @return the passed StringBuilder.
+     */
+    public StringBuilder appendTo(StringBuilder builder){
+        FORMATTER.appendTo(builder, value);
+        return builder.append(' ').append(unit);
+    }
+    
+    /**
+     * Appends value and unit name separated by space.
+     * 
+     * @param out Appendable receiving the text.
+     * @return the passed Appendable.
+     * @throws IOException if the Appendable fails.
+     */
+    public Appendable appendTo(Appendable out) throws IOException{
+        FORMATTER.appendTo(out, value);
+        return out.append(' ').append(unit);
     }
 
     
@@ -79,6 +79,8 @@
                         <div id="showunit-grid">
                             <p id="label-showunit">Symbol:</p>
                             <input id="field-showunit" class="field-calculate" id="field-showunit" type=text name=showunit>
+                            <p id="label-showvalue">Value:</p>
+                            <input id="field-showvalue" class="field-calculate" type=text name=showvalue value="1">
 
                             <input id="showButton" type="submit" value="Show unit data"/>
 
@@ -119,6 +121,9 @@
                         <input class="field-new" id="field-metric-original" type=text name=originalUnit>
                         <input class="submit-button" name="button" type="submit" value="Metric"/>
                 </form>
+                <form id="Import" action="index" method="POST">
+                        <input class="submit-button" name="button" type="submit" value="Import"/>
+                </form>
                 <form id="Delete" action="index" method="POST">
                         <p class="label-new">Original unit:</p>
                         <input class="field-new" id="field-delete-original" type=text name=originalUnit>
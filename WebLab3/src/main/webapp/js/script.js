@@ -1,5 +1,6 @@
 function changeVisibility(visibleForm){
     document.getElementById("Add").style.display = (visibleForm === "Add") ? "block" : "none";
+    document.getElementById("Import").style.display = (visibleForm === "Add") ? "block" : "none";
     document.getElementById("Delete").style.display = (visibleForm === "Delete") ? "block" : "none";
     
     document.getElementById("Addunit").style.display = (visibleForm === "Addunit") ? "block" : "none";
@@ -29,6 +29,19 @@
                 </div>
             </div>
             
+            <p class="result-label" id="values">${showunitvaluelabel}</p>
+            
+            <div id="values-container">
+                <div id="values-table" style="overflow-y:auto;">
+                    <table class="table">
+                    <tr>
+                        <th>Value</th>
+                    </tr>
+                    ${showunitvaluetablecontent}
+                </table> 
+                </div>
+            </div>
+            
             <form action="/WebLab3" method="POST">
             <button id="back-button" type="submit">Go back</button> 
             </form>
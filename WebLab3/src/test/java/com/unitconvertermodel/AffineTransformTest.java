@@ -0,0 +1,105 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.AffineTransform;
+import pl.polsl.lab.model.Conversion;
+import pl.polsl.lab.model.OperationSequence;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * Class responsible for testing the AffineTransform record.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class AffineTransformTest {
+
+    /**
+     * Tested methods:
+     * AffineTransform of(OperationSequence)
+     * double apply(double)
+     * AffineTransform then(AffineTransform)
+     * AffineTransform inverse()
+     *
+     * Tested cases:
+     * folded sequence gives the same result as calculating operations one by one
+     * composed transforms give the same result as applying both sequences
+     * inverse transform gives the same result as the inverted sequence
+     */
+
+    /**
+     * Provides data for all test cases.
+     *
+     * @return test arguments.
+     */
+    private static Stream<Arguments> sequences() {
+        return Stream.of(
+            arguments("+2", 1),
+            arguments("+2*2", 1),
+            arguments("*0.024+1.1/2", 1.2),
+            arguments("-273.15*9/5+32", 300),
+            arguments("/5.3+2+1", -12.5),
+            arguments("*100.10", 0)
+        );
+    }
+
+    /**
+     * Tests the
+     * "folded sequence gives the same result as calculating operations one by one" case.
+     *
+     * @param operations operation sequence.
+     * @param value converted value.
+     */
+    @ParameterizedTest
+    @MethodSource("sequences")
+    public void testOf(String operations, double value){
+        Conversion conv = new Conversion("a", "b", operations);
+        double expected = conv.calculate(value);
+
+        double result = AffineTransform.of(new OperationSequence(operations)).apply(value);
+
+        assertEquals(expected, result, 1e-9, "Folded sequence gives a different result.");
+    }
+
+    /**
+     * Tests the
+     * "composed transforms give the same result as applying both sequences" case.
+     *
+     * @param operations operation sequence.
+     * @param value converted value.
+     */
+    @ParameterizedTest
+    @MethodSource("sequences")
+    public void testThen(String operations, double value){
+        Conversion first = new Conversion("a", "b", operations);
+        Conversion second = new Conversion("b", "c", "*3-1.5");
+        double expected = second.calculate(first.calculate(value));
+
+        double result = first.compile().then(second.compile()).apply(value);
+
+        assertEquals(expected, result, 1e-9, "Composed transform gives a different result.");
+    }
+
+    /**
+     * Tests the
+     * "inverse transform gives the same result as the inverted sequence" case.
+     *
+     * @param operations operation sequence.
+     * @param value converted value.
+     */
+    @ParameterizedTest
+    @MethodSource("sequences")
+    public void testInverse(String operations, double value){
+        Conversion conv = new Conversion("a", "b", operations);
+        double expected = conv.inverted().calculate(conv.calculate(value));
+
+        AffineTransform transform = AffineTransform.of(new OperationSequence(operations));
+        double result = transform.inverse().apply(transform.apply(value));
+
+        assertEquals(expected, result, 1e-9, "Inverse transform gives a different result.");
+        assertEquals(value, result, 1e-9, "Inverse transform doesn't reverse the conversion.");
+    }
+}
@@ -0,0 +1,125 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.AffineTransform;
+import pl.polsl.lab.model.Conversion;
+import pl.polsl.lab.model.ConversionCache;
+import pl.polsl.lab.model.ConversionCache.EvictionPolicy;
+import pl.polsl.lab.model.ConversionContainer;
+import pl.polsl.lab.model.Converter;
+import pl.polsl.lab.model.PathSearch;
+import pl.polsl.lab.model.ValueWithUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class responsible for testing the ConversionCache class.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class ConversionCacheTest {
+    /** Transform stored in tested caches.*/
+    private static final AffineTransform TRANSFORM = new AffineTransform(2, 1);
+
+    /**
+     * Tests if stored transforms are found only for the same order of units
+     * and if hits and misses are counted.
+     */
+    @Test
+    public void testGetCountsHitsAndMisses(){
+        ConversionCache cache = new ConversionCache();
+        cache.put("a", "b", 1, TRANSFORM);
+
+        assertEquals(TRANSFORM, cache.get("a", "b", 1), "Stored transform wasn't found.");
+        assertEquals(null, cache.get("b", "a", 1), "Transform was found for reversed units.");
+        assertEquals(1, cache.getHits(), "Incorrect number of hits.");
+        assertEquals(1, cache.getMisses(), "Incorrect number of misses.");
+    }
+
+    /**
+     * Tests if stored transforms are discarded after the container version changes.
+     */
+    @Test
+    public void testGetOutdatedVersion(){
+        ConversionCache cache = new ConversionCache();
+        cache.put("a", "b", 1, TRANSFORM);
+
+        assertEquals(null, cache.get("a", "b", 2), "Transform from an outdated container was returned.");
+        assertEquals(0, cache.size(), "Outdated transforms weren't discarded.");
+    }
+
+    /**
+     * Tests if the least recently used entry is removed from a full cache.
+     */
+    @Test
+    public void testEvictionLeastRecentlyUsed(){
+        ConversionCache cache = new ConversionCache(2, EvictionPolicy.LEAST_RECENTLY_USED);
+        cache.put("a", "b", 1, TRANSFORM);
+        cache.put("b", "c", 1, TRANSFORM);
+        cache.get("a", "b", 1);
+        cache.put("c", "d", 1, TRANSFORM);
+
+        assertEquals(TRANSFORM, cache.get("a", "b", 1), "Recently used entry was removed.");
+        assertEquals(null, cache.get("b", "c", 1), "Least recently used entry wasn't removed.");
+        assertEquals(2, cache.size(), "Cache exceeded its capacity.");
+    }
+
+    /**
+     * Tests if the oldest entry is removed from a full cache, even if it was recently read.
+     */
+    @Test
+    public void testEvictionOldestFirst(){
+        ConversionCache cache = new ConversionCache(2, EvictionPolicy.OLDEST_FIRST);
+        cache.put("a", "b", 1, TRANSFORM);
+        cache.put("b", "c", 1, TRANSFORM);
+        cache.get("a", "b", 1);
+        cache.put("c", "d", 1, TRANSFORM);
+
+        assertEquals(null, cache.get("a", "b", 1), "Oldest entry wasn't removed.");
+        assertEquals(TRANSFORM, cache.get("b", "c", 1), "Newer entry was removed.");
+    }
+
+    /**
+     * Tests if a cache with no capacity doesn't store anything.
+     */
+    @Test
+    public void testZeroCapacity(){
+        ConversionCache cache = new ConversionCache(0, EvictionPolicy.LEAST_RECENTLY_USED);
+        cache.put("a", "b", 1, TRANSFORM);
+
+        assertEquals(null, cache.get("a", "b", 1), "Cache without capacity stored a transform.");
+    }
+
+    /**
+     * Tests if negative capacity results in an exception.
+     */
+    @Test
+    public void testNegativeCapacity(){
+        try{
+            new ConversionCache(-1, EvictionPolicy.LEAST_RECENTLY_USED);
+            fail("Negative capacity should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+    }
+
+    /**
+     * Tests if the converter reuses cached paths and stops using them
+     * after the container is modified.
+     */
+    @Test
+    public void testConverterUsesCache(){
+        ConversionContainer container = new ConversionContainer();
+        container.add(new Conversion("m", "km", "*0.001"));
+        container.add(new Conversion("m", "ft", "*3.28084"));
+        Converter converter = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache());
+
+        converter.convert(new ValueWithUnit(1, "km"), "ft");
+        converter.convert(new ValueWithUnit(2, "km"), "ft");
+        assertEquals(1, converter.getCache().getHits(), "Repeated conversion didn't use the cache.");
+
+        container.delete("m", "ft");
+        assertEquals(null, converter.convert(new ValueWithUnit(2, "km"), "ft"),
+                     "Cached path was used after the container was modified.");
+    }
+}
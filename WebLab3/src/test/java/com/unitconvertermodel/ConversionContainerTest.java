@@ -2,9 +2,10 @@ package com.unitconvertermodel;
 
 import pl.polsl.lab.model.Conversion;
 import pl.polsl.lab.model.ConversionContainer;
-import pl.polsl.lab.model.MetricPrefixesMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -351,50 +352,154 @@ public class ConversionContainerTest {
                      "Deletion attempt inside an empty container should always return false.");
     }
     
+    /**
+     * Tests if a conversion can be added again (in either unit order)
+     * after it has been deleted, and if lookups don't find it in between.
+     */
+    @Test
+    public void testDeleteThenAdd(){
+        containerFull.delete("b", "a");
+        assertEquals(false, containerFull.exists("a", "b"), "Deleted conversion is still found.");
+        assertEquals(-1, containerFull.findIndexOf("a", "b"), "Deleted conversion is still indexed.");
+        
+        boolean result = containerFull.add(new Conversion("b", "a", "-2"));
+        assertEquals(true, result, "Conversion between previously deleted units should be added.");
+        assertEquals(new Conversion("b", "a", "-2"), containerFull.returnConversion("a", "b"),
+                     "Incorrect result of search after re-adding a conversion.");
+        assertEquals(3, containerFull.findIndexOf("a", "b"), "Re-added conversion should be the last element.");
+    }
+    
+    /**
+     * Tests if indices of remaining conversions are still correct after deleting
+     * conversions from the middle and from the end of the container.
+     */
+    @Test
+    public void testDeleteKeepsIndices(){
+        containerFull.delete("c", "d");
+        containerFull.delete("a", "c");
+        
+        assertEquals(2, containerFull.length(), "Incorrect number of conversions.");
+        for(int i = 0; i < containerFull.length(); i++){
+            Conversion c = containerFull.get(i);
+            assertEquals(i, containerFull.findIndexOf(c.getOriginalUnit(), c.getTargetUnit()), "Incorrect index after delete.");
+        }
+        assertEquals(true, containerFull.delete(new Conversion("ab", "xy", "+1*2")), "Remaining conversion wasn't deleted.");
+        assertEquals(new Conversion("a", "b", "+2"), containerFull.get(0), "Incorrect remaining conversion.");
+    }
+    
     //--------------------------------------------------------------------------------------------------------------------
     
     /**
      * Tested methods:
-     * void addMetricConversions(String)
-     * void addMetricConversions(Unit)
+     * boolean addMetricUnit(String)
+     * boolean removeMetricUnit(String)
+     * boolean isMetricUnit(String)
      * 
      * Tested cases:
-     * argument is valid 
-     * argument is invalid (is null/empty/contains whitespace/has a prefix)
+     * argument is valid - unit is registered and no conversions are stored
+     * unit is registered again or removed
+     * argument has a prefix - unit isn't registered
      * 
      */
     
     /**
-     * Fills the expected container.
+     * Tests the "argument is valid" case.
+     */
+    @Test
+    public void addMetricUnitValid(){
+        ConversionContainer expected = new ConversionContainer();
+        containerMetric.forEach(expected::add);
+        
+        assertEquals(true, containerMetric.addMetricUnit("m"), "Unit wasn't registered.");
+        assertEquals(true, containerMetric.isMetricUnit("m"), "Unit wasn't registered.");
+        assertEquals(expected, containerMetric, "Conversions were stored for prefixed units.");
+    }
+    
+    /**
+     * Tests the "unit is registered again or removed" case.
+     */
+    @Test
+    public void addMetricUnitTwice(){
+        containerMetric.addMetricUnit("m");
+        
+        assertEquals(false, containerMetric.addMetricUnit("m"), "Unit was registered twice.");
+        assertEquals(true, containerMetric.removeMetricUnit("m"), "Unit wasn't removed.");
+        assertEquals(false, containerMetric.isMetricUnit("m"), "Unit wasn't removed.");
+    }
+    
+    /**
+     * Tests the "argument has a prefix" case.
+     */
+    @Test
+    public void addMetricUnitPrefixed(){
+        assertEquals(false, containerMetric.addMetricUnit("km"), "Prefixed unit was registered.");
+        assertEquals(false, containerMetric.isMetricUnit("km"), "Prefixed unit was registered.");
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Tested methods:
+     * List<Conversion> addAll(Collection<Conversion>)
+     * 
+     * Tested cases:
+     * collection has duplicates of stored conversions and of its own conversions - duplicates are rejected
+     * collection is added to an empty container - result is the same as adding conversions one by one
+     * argument is invalid (collection is null/conversion between the same unit)
      * 
-     * @param expected model container created after the "argument is valid" test.
      */
-    void fillMetricExpected(ConversionContainer expected){
-        expected.add(new Conversion("m", "km", "/1000"));
-        expected.add(new Conversion("cm", "m", "/100"));
-        expected.add(new Conversion("m", "ft", "*3.28084"));
+    
+    /**
+     * Tests the "collection has duplicates" case.
+     */
+    @Test
+    public void testAddAllDuplicates(){
+        Conversion duplicateStored = new Conversion("b", "a", "-2");
+        Conversion first = new Conversion("x", "y", "*3");
+        Conversion duplicateAdded = new Conversion("y", "x", "/3");
+        Conversion second = new Conversion("d", "y", "*2");
         
-        MetricPrefixesMap map = new MetricPrefixesMap();
+        List<Conversion> rejected = containerFull.addAll(List.of(duplicateStored, first, duplicateAdded, second));
         
-        for(String key : map.keySet()){
-            String prefixedUnit = key + "m";
-            if(!prefixedUnit.equals("km") && !prefixedUnit.equals("cm"))
-                expected.add(new Conversion("m", prefixedUnit, map.returnMultiplier(key)));
-        }
+        assertEquals(List.of(duplicateStored, duplicateAdded), rejected, "Incorrect rejected conversions.");
+        assertEquals(6, containerFull.length(), "Incorrect number of conversions.");
+        assertEquals(first, containerFull.returnConversion("y", "x"), "First conversion of a pair wasn't kept.");
+        assertEquals(true, containerFull.areConnected("a", "x"), "Components weren't updated.");
     }
     
     /**
-     * Tests the "argument is valid" case.
+     * Tests the "collection is added to an empty container" case.
      */
     @Test
-    public void addMetricConversionsValid(){
-        ConversionContainer expected = new ConversionContainer();
-        fillMetricExpected(expected);
+    public void testAddAllEmpty(){
+        ArrayList<Conversion> conversions = new ArrayList<>(containerFull.getData());
+        conversions.add(new Conversion("xy", "ab", "*5"));
+        
+        List<Conversion> rejected = containerEmpty.addAll(conversions);
         
-        containerMetric.addMetricConversions("m");
-        assertEquals(expected, containerMetric, "Metric values added incorrectly.");
+        assertEquals(1, rejected.size(), "Incorrect number of rejected conversions.");
+        assertEquals(containerFull, containerEmpty, "Conversions added incorrectly.");
+        assertEquals(true, containerEmpty.areConnected("b", "d"), "Components weren't built.");
+        assertEquals(false, containerEmpty.areConnected("b", "xy"), "Components weren't built.");
     }
     
+    /**
+     * Tests the "argument is invalid" case.
+     */
+    @Test
+    public void testAddAllInvalid(){
+        try{
+            containerFull.addAll(null);
+            fail("Adding null should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+        try{
+            containerFull.addAll(List.of(new Conversion("x", "y", "*3"), new Conversion("z", "z", "*3")));
+            fail("Adding a conversion between the same unit should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+        assertEquals(4, containerFull.length(), "Container was modified despite the exception.");
+    }
     
     //--------------------------------------------------------------------------------------------------------------------
 
@@ -457,6 +562,19 @@ public class ConversionContainerTest {
         assertEquals(expected,result, "Incorrect direct search result.");
     }
     
+    /**
+     * Tests if direct conversions of a unit are updated after one of them is deleted.
+     */
+    @Test
+    public void testFindAllDirectConversionsAfterDelete(){
+        containerFull.delete("a", "b");
+        ArrayList<String> result = containerFull.findAllDirectConversions("a", new ArrayList<String>());
+        assertEquals(new ArrayList<String>(Arrays.asList("c")), result, "Deleted conversion is still treated as direct.");
+        
+        result = containerFull.findAllDirectConversions("b", new ArrayList<String>());
+        assertEquals(new ArrayList<String>(), result, "Unit without conversions shouldn't have direct conversions.");
+    }
+    
     //--------------------------------------------------------------------------------------------------------------------
     
     /**
@@ -505,4 +623,89 @@ public class ConversionContainerTest {
     
     //--------------------------------------------------------------------------------------------------------------------
     
+    /**
+     * Provides data for the areConnected(String, String) test.
+     * 
+     * @return test arguments.
+     */
+    private static Stream<Arguments> testAreConnected() {
+        return Stream.of(
+            arguments("a", "b", true),
+            arguments("b", "d", true),
+            arguments("d", "a", true),
+            arguments("ab", "xy", true),
+            arguments("a", "xy", false),
+            arguments("a", "z", false),
+            arguments("y", "z", false)
+        );
+    } 
+    
+    /**
+     * Tests if container correctly tells if a path exists between units.
+     * 
+     * @param unit1 name of first unit.
+     * @param unit2 name of second unit.
+     * @param expected true if units are connected.
+     */
+    @ParameterizedTest
+    @MethodSource
+    public void testAreConnected(String unit1, String unit2, boolean expected){
+        boolean result = containerFull.areConnected(unit1, unit2);
+        assertEquals(expected, result, "Incorrect connection result.");
+    }
+    
+    /**
+     * Tests if components are split after deleting the only conversion connecting them
+     * and joined again after adding a new one.
+     */
+    @Test
+    public void testAreConnectedAfterDelete(){
+        containerFull.delete("c", "a");
+        assertEquals(false, containerFull.areConnected("b", "d"), "Units are connected after deleting the connection.");
+        assertEquals(true, containerFull.areConnected("a", "b"), "Remaining connection was lost.");
+        
+        containerFull.add(new Conversion("b", "xy", "+1"));
+        containerFull.add(new Conversion("d", "ab", "+1"));
+        assertEquals(true, containerFull.areConnected("a", "c"), "Units weren't connected by new conversions.");
+    }
+    
+    /**
+     * Tests if components stay correct after many random conversions are added and deleted,
+     * comparing them with components of a container built from the remaining conversions.
+     */
+    @Test
+    public void testAreConnectedRandomDeletes(){
+        Random random = new Random(22);
+        ConversionContainer container = new ConversionContainer();
+        for(int i = 0; i < 2000; i++){
+            //Number of conversions is kept close to the number of units, so components are often split
+            if(container.length() > 0 && (container.length() >= 30 || random.nextBoolean())){
+                ArrayList<Conversion> stored = new ArrayList<>();
+                container.forEach(stored::add);
+                Conversion deleted = stored.get(random.nextInt(stored.size()));
+                container.delete(deleted.getOriginalUnit(), deleted.getTargetUnit());
+            }else{
+                String unit1 = "u" + random.nextInt(30);
+                String unit2 = "u" + random.nextInt(30);
+                if(!unit1.equals(unit2))
+                    container.add(new Conversion(unit1, unit2, "*2"));
+            }
+            
+            if(i % 50 == 0){
+                ConversionContainer expected = new ConversionContainer();
+                ArrayList<Conversion> remaining = new ArrayList<>();
+                container.forEach(remaining::add);
+                expected.addAll(remaining);
+                for(int j = 0; j < 30; j++){
+                    for(int k = 0; k < 30; k++){
+                        assertEquals(expected.areConnected("u" + j, "u" + k), container.areConnected("u" + j, "u" + k),
+                                     "Incorrect connection result after changes.");
+                    }
+                }
+            }
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+    
 }
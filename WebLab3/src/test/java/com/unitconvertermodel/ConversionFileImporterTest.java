@@ -0,0 +1,208 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.Conversion;
+import pl.polsl.lab.model.ConversionContainer;
+import pl.polsl.lab.model.ConversionFileImporter;
+import pl.polsl.lab.model.InvalidConversionFileException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Class responsible for testing the ConversionFileImporter class.
+ *
+ * @version 1.2
+ * @author Kinga Adamczak
+ */
+public class ConversionFileImporterTest {
+
+    /** Container with conversions stored before importing.*/
+    ConversionContainer container;
+    /** Executor parsing chunks, shared by all tests.*/
+    static ExecutorService executor;
+
+    @BeforeAll
+    public static void initExecutor(){
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    public static void shutdownExecutor(){
+        executor.shutdownNow();
+    }
+
+    @BeforeEach
+    public void init(){
+        container = new ConversionContainer();
+        container.add(new Conversion("m", "ft", "*3.28"));
+    }
+
+    /**
+     * Creates text of a file with many correct lines.
+     *
+     * @param count number of lines.
+     * @return file text.
+     */
+    private static String createFile(int count){
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < count; i++){
+            text.append("u").append(i).append(" v").append(i).append(" *").append(i + 1).append(".5\n");
+        }
+        return text.toString();
+    }
+
+    //--------------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Tested methods:
+     * ArrayList<Conversion> read(Reader, ConversionContainer)
+     * ArrayList<Conversion> importInto(Reader, ConversionContainer)
+     * ParsedFile parse(Reader)
+     * ArrayList<Conversion> check(ParsedFile, ConversionContainer)
+     *
+     * Tested cases:
+     * file is correct - conversions are returned in the order of the file and added to the container
+     * file is split into many chunks parsed in parallel - result is the same as with one thread
+     * file has incorrect lines - all incorrect lines are reported and nothing is added
+     * file repeats stored conversions - equal lines are skipped, so the file can be imported again
+     * conversion is stored after parsing - its line is reported by the check
+     * arguments are invalid - exception
+     */
+
+    /**
+     * Tests the "file is correct" case.
+     *
+     * @throws Exception if importing fails.
+     */
+    @Test
+    public void testImportCorrect() throws Exception{
+        String text = "m km *0.001\n\n  kg\tlbs   *2.20462  \r\nC F *9/5+32";
+        ArrayList<Conversion> imported = new ConversionFileImporter().importInto(new StringReader(text), container);
+
+        assertEquals(3, imported.size(), "Incorrect number of conversions.");
+        assertEquals("kg", imported.get(1).getOriginalUnit(), "Incorrect order of conversions.");
+        assertEquals(4, container.length(), "Conversions weren't added.");
+        assertEquals(212, imported.get(2).calculate(100), 1e-12, "Incorrect operations.");
+    }
+
+    /**
+     * Tests the "file is split into many chunks" case.
+     *
+     * @param chunkLines number of lines in a chunk.
+     * @param parallelism number of chunks parsed at once.
+     * @throws Exception if importing fails.
+     */
+    @ParameterizedTest
+    @CsvSource({ "1, 4", "7, 2", "100, 8", "5000, 3" })
+    public void testImportParallel(int chunkLines, int parallelism) throws Exception{
+        String text = createFile(2000);
+        ArrayList<Conversion> expected = new ConversionFileImporter(chunkLines, null, 1).read(new StringReader(text), container);
+        ArrayList<Conversion> result = new ConversionFileImporter(chunkLines, executor, parallelism).read(new StringReader(text), container);
+
+        assertEquals(2000, result.size(), "Incorrect number of conversions.");
+        assertEquals(expected, result, "Parallel parsing gave a different result.");
+    }
+
+    /**
+     * Tests the "file has incorrect lines" case.
+     *
+     * @throws IOException if reading fails.
+     */
+    @Test
+    public void testImportIncorrect() throws IOException{
+        String text = createFile(10)
+                    + "a b\n"              //Line 11 - missing operations
+                    + "a b *2 c\n"         //Line 12 - too many fields
+                    + "a b *0\n"           //Line 13 - incorrect operations
+                    + "a a *2\n"           //Line 14 - same unit
+                    + "ft m /3.28\n"       //Line 15 - changes stored conversion
+                    + "v3 u3 *2\n"         //Line 16 - duplicate of line 4
+                    + "a b *2\n";          //Line 17 - correct
+        for(ExecutorService parsing : new ExecutorService[] { null, executor }){
+            try{
+                new ConversionFileImporter(2, parsing, 3).importInto(new StringReader(text), container);
+                fail("Incorrect lines should result in an exception.");
+            }catch(InvalidConversionFileException e){
+                assertArrayEquals(new int[] { 11, 12, 13, 14, 15, 16 }, e.getInvalidLineIndices(), "Incorrect lines reported.");
+                assertEquals(16, e.getInvalidLineIndex(), "Incorrect last line.");
+            }
+            assertEquals(1, container.length(), "Conversions were added despite incorrect lines.");
+        }
+    }
+
+    /**
+     * Tests the "file repeats stored conversions" case.
+     *
+     * @throws Exception if importing fails.
+     */
+    @Test
+    public void testImportRepeated() throws Exception{
+        String text = "m ft *3.28\n" + createFile(3);
+        ArrayList<Conversion> imported = new ConversionFileImporter(2, executor, 2).importInto(new StringReader(text), container);
+
+        assertEquals(3, imported.size(), "Stored conversion wasn't skipped.");
+        assertEquals("u0", imported.get(0).getOriginalUnit(), "Incorrect conversions returned.");
+        assertEquals(4, container.length(), "Conversions weren't added.");
+
+        imported = new ConversionFileImporter(2, executor, 2).importInto(new StringReader(text), container);
+        assertEquals(0, imported.size(), "Imported conversions weren't skipped.");
+        assertEquals(4, container.length(), "Conversions were added twice.");
+    }
+
+    /**
+     * Tests the "conversion is stored after parsing" case.
+     *
+     * @throws IOException if reading fails.
+     */
+    @Test
+    public void testImportStoredAfterParsing() throws IOException{
+        String text = "a b /0\n" + createFile(3) + "v1 u1 *2\n";
+        ConversionFileImporter importer = new ConversionFileImporter(2, executor, 2);
+        ConversionFileImporter.ParsedFile file = importer.parse(new StringReader(text));
+        container.add(new Conversion("u0", "v0", "*2.5"));
+        container.add(new Conversion("v2", "u2", "/3.5"));
+
+        assertEquals(3, file.size(), "Incorrect number of parsed conversions.");
+        try{
+            importer.check(file, container);
+            fail("Stored conversions should result in an exception.");
+        }catch(InvalidConversionFileException e){
+            assertArrayEquals(new int[] { 1, 2, 4, 5 }, e.getInvalidLineIndices(), "Incorrect lines reported.");
+        }
+    }
+
+    /**
+     * Tests the "arguments are invalid" case.
+     *
+     * @throws Exception if importing fails.
+     */
+    @Test
+    public void testImportInvalidArguments() throws Exception{
+        try{
+            new ConversionFileImporter().read(null, container);
+            fail("Null reader should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+        try{
+            new ConversionFileImporter(0, null, 1);
+            fail("Empty chunks should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+        try{
+            new ConversionFileImporter(1, executor, 0);
+            fail("No parsed chunks should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+    }
+}
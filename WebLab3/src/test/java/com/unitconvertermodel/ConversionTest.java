@@ -2,6 +2,8 @@ package com.unitconvertermodel;
 
 import pl.polsl.lab.model.Conversion;
 import pl.polsl.lab.model.Unit;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -306,6 +308,25 @@ public class ConversionTest {
         assertEquals(expected, result, "Conversion doesn't return the expected form of toString().");
     }
     
+    /**
+     * Tests the appendTo(StringBuilder) and appendTo(Appendable) methods -
+     * appended text should be the same as toString() and follow existing content.
+     * 
+     * @param conv Conversion object
+     * @param expected expected String.
+     * @throws IOException if writing fails.
+     */
+    @ParameterizedTest
+    @MethodSource("testToString")
+    public void testAppendTo(Conversion conv, String expected) throws IOException{
+        StringBuilder builder = new StringBuilder("<td>");
+        assertEquals("<td>" + expected, conv.appendTo(builder).toString(), "Incorrect appended text.");
+        
+        StringWriter writer = new StringWriter();
+        conv.appendTo(writer);
+        assertEquals(expected, writer.toString(), "Incorrect appended text.");
+    }
+    
     //--------------------------------------------------------------------------------------------------------------------   
 
     private static Stream<Arguments> testEqualsValid() {
@@ -356,4 +377,19 @@ public class ConversionTest {
         assertEquals(false, result, "Incorrect equals result for null object.");
     }
     
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tests the inverted() method - returned conversion should have swapped units
+     * and an inverted operation sequence, while the original conversion stays unchanged.
+     */
+    @Test
+    public void testInverted(){
+        Conversion c = new Conversion("°C", "°F", "*9/5+32");
+        
+        Conversion result = c.inverted();
+        
+        assertEquals(new Conversion("°F", "°C", "-32*5/9"), result, "Incorrect inverted conversion.");
+        assertEquals(new Conversion("°C", "°F", "*9/5+32"), c, "Original conversion shouldn't be changed.");
+    }
 }
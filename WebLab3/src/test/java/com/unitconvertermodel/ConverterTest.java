@@ -1,13 +1,23 @@
 package com.unitconvertermodel;
 
 import  pl.polsl.lab.model.Conversion;
+import  pl.polsl.lab.model.ConversionCache;
 import  pl.polsl.lab.model.ConversionContainer;
 import  pl.polsl.lab.model.Converter;
+import  pl.polsl.lab.model.MetricPrefixesMap;
+import  pl.polsl.lab.model.OperationSequenceLexer;
+import  pl.polsl.lab.model.PathSearch;
 import  pl.polsl.lab.model.ValueWithUnit;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import org.junit.jupiter.params.provider.*;
@@ -111,4 +121,464 @@ public class ConverterTest {
         assertEquals(null, result, "Returned result despite conversion not existing.");
     }
     
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tests if every path search algorithm gives the same results as the default one
+     * (cases from the "path between unit exists" and "path between unit doesn't exist" tests).
+     * 
+     * @param search tested path search algorithm.
+     */
+    @ParameterizedTest
+    @EnumSource(PathSearch.class)
+    public void testConvertPathSearchModes(PathSearch search){
+        Converter tested = new Converter(container, search);
+        
+        testConvertPathDoesExist().forEach(a -> {
+            Object[] args = a.get();
+            ValueWithUnit expected = converter.convert((ValueWithUnit) args[0], (String) args[1]);
+            ValueWithUnit result = tested.convert((ValueWithUnit) args[0], (String) args[1]);
+            assertEquals(expected.getValue(), result.getValue(), 1e-9, "Incorrect conversion result.");
+        });
+        testConvertPathDoesNotExist().forEach(a -> {
+            Object[] args = a.get();
+            ValueWithUnit result = tested.convert((ValueWithUnit) args[0], (String) args[1]);
+            assertEquals(null, result, "Returned result despite conversion not existing.");
+        });
+    }
+    
+    /**
+     * Tests if conversions reflect changes made to the container after the converter was created.
+     * 
+     * @param search tested path search algorithm.
+     */
+    @ParameterizedTest
+    @EnumSource(PathSearch.class)
+    public void testConvertAfterContainerChange(PathSearch search){
+        Converter tested = new Converter(container, search);
+        assertEquals(null, tested.convert(new ValueWithUnit(1, "in"), "°C"), "Returned result before units were connected.");
+        
+        container.add(new Conversion("K", "m", "*2"));
+        assertEquals(0.1524, tested.convert(new ValueWithUnit(12, "in"), "K").getValue(), 1e-6,
+                     "Conversion added to the container wasn't used.");
+        
+        container.delete("m", "ft");
+        assertEquals(null, tested.convert(new ValueWithUnit(12, "in"), "K"), "Deleted conversion was used.");
+    }
+    
+    /**
+     * Tests if conversions through the spanning tree match conversions through the shortest path
+     * after a long sequence of random additions and deletions. Every unit "u" + i is defined
+     * as (i + 1) times a common base, so conversions along all paths are consistent.
+     */
+    @Test
+    public void testSpanningTreeAfterRandomChanges(){
+        ConversionContainer graph = new ConversionContainer();
+        Converter shortest = new Converter(graph, PathSearch.BREADTH_FIRST);
+        Converter tree = new Converter(graph, PathSearch.SPANNING_TREE);
+        Random random = new Random(7);
+        int units = 15;
+        
+        for(int step = 0; step < 400; step++){
+            int i = random.nextInt(units);
+            int j = random.nextInt(units);
+            if(i == j)
+                continue;
+            if(random.nextInt(3) == 0)
+                graph.delete("u" + i, "u" + j);
+            else
+                graph.add(new Conversion("u" + i, "u" + j, "*" + (j + 1) + "/" + (i + 1)));
+            
+            for(int a = 0; a < units; a++){
+                for(int b = 0; b < units; b++){
+                    ValueWithUnit input = new ValueWithUnit(1, "u" + a);
+                    ValueWithUnit expected = shortest.convert(input, "u" + b);
+                    ValueWithUnit result = tree.convert(input, "u" + b);
+                    if(expected == null)
+                        assertEquals(null, result, "Returned result despite conversion not existing.");
+                    else
+                        assertEquals(expected.getValue(), result.getValue(), 1e-9, "Incorrect conversion result.");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tests if conversions through the spanning tree match conversions through the shortest path
+     * after small groups of random conversions, often joining several components at once,
+     * are added with addAll and then some of them are deleted.
+     */
+    @Test
+    public void testSpanningTreeAfterRandomGroups(){
+        ConversionContainer graph = new ConversionContainer();
+        Converter shortest = new Converter(graph, PathSearch.BREADTH_FIRST);
+        Converter tree = new Converter(graph, PathSearch.SPANNING_TREE);
+        Random random = new Random(19);
+        int units = 40;
+        for(int i = 0; i < 20; i++){
+            graph.add(new Conversion("u" + (2 * i), "u" + (2 * i + 1), "*" + (2 * i + 2) + "/" + (2 * i + 1)));
+        }
+        
+        for(int step = 0; step < 60; step++){
+            ArrayList<Conversion> group = new ArrayList<>();
+            for(int k = 0; k < 4; k++){
+                int i = random.nextInt(units);
+                int j = random.nextInt(units);
+                if(i != j)
+                    group.add(new Conversion("u" + i, "u" + j, "*" + (j + 1) + "/" + (i + 1)));
+            }
+            graph.addAll(group);
+            if(!group.isEmpty() && random.nextBoolean())
+                graph.delete(group.get(0).getOriginalUnit(), group.get(0).getTargetUnit());
+            
+            for(int a = 0; a < units; a++){
+                for(int b = 0; b < units; b++){
+                    ValueWithUnit input = new ValueWithUnit(1, "u" + a);
+                    ValueWithUnit expected = shortest.convert(input, "u" + b);
+                    ValueWithUnit result = tree.convert(input, "u" + b);
+                    if(expected == null)
+                        assertEquals(null, result, "Returned result despite conversion not existing.");
+                    else
+                        assertEquals(expected.getValue(), result.getValue(), 1e-9, "Incorrect conversion result.");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tests if every path search algorithm finds a path with the smallest number of conversions.
+     * The graph contains a long chain and a shortcut; every conversion adds 1,
+     * so the result is the number of conversions used.
+     * 
+     * @param search tested path search algorithm.
+     */
+    @ParameterizedTest
+    @EnumSource(value = PathSearch.class, names = {"BREADTH_FIRST", "COMPACT_GRAPH", "BIDIRECTIONAL"})
+    public void testConvertShortestPath(PathSearch search){
+        ConversionContainer graph = new ConversionContainer();
+        for(int i = 0; i < 10; i++){
+            graph.add(new Conversion("u" + i, "u" + (i + 1), "+1"));
+        }
+        graph.add(new Conversion("u2", "x", "+1"));
+        graph.add(new Conversion("x", "u7", "+1"));
+        graph.add(new Conversion("y", "u10", "+1"));
+        Converter tested = new Converter(graph, search);
+        
+        assertEquals(7, tested.convert(new ValueWithUnit(0, "u0"), "u10").getValue(), 1e-9,
+                     "Path isn't the shortest one.");
+        assertEquals(-6, tested.convert(new ValueWithUnit(0, "y"), "u0").getValue(), 1e-9,
+                     "Path isn't the shortest one.");
+        assertEquals(1, tested.convert(new ValueWithUnit(0, "u9"), "u10").getValue(), 1e-9,
+                     "Path isn't the shortest one.");
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tested methods:
+     * double[] convert(double[], String, String)
+     * boolean convertInPlace(double[], String, String)
+     * boolean convertInPlace(DoubleBuffer, String, String)
+     * 
+     * Tested cases:
+     * path between units exists - values are converted like single values
+     * path between units doesn't exist - null/false is returned, values are unchanged
+     */
+    
+    /**
+     * Tests the "path between units exists" case.
+     */
+    @Test
+    public void testConvertArrayPathDoesExist(){
+        double[] values = {10.5, -3, 0, 1e6};
+        double[] expected = new double[values.length];
+        for(int i = 0; i < values.length; i++){
+            expected[i] = converter.convert(new ValueWithUnit(values[i], "km"), "in").getValue();
+        }
+        
+        assertArrayEquals(expected, converter.convert(values, "km", "in"), 1e-9, "Incorrect conversion result.");
+        
+        double[] inPlace = values.clone();
+        assertEquals(true, converter.convertInPlace(inPlace, "km", "in"), "Values weren't converted.");
+        assertArrayEquals(expected, inPlace, 1e-9, "Incorrect conversion result.");
+        
+        DoubleBuffer buffer = DoubleBuffer.allocate(values.length + 1);
+        buffer.put(42).put(values).flip().position(1);
+        assertEquals(true, converter.convertInPlace(buffer, "km", "in"), "Values weren't converted.");
+        assertEquals(1, buffer.position(), "Buffer position was changed.");
+        assertEquals(42, buffer.get(0), "Value before buffer position was converted.");
+        for(int i = 0; i < values.length; i++){
+            assertEquals(expected[i], buffer.get(i + 1), 1e-9, "Incorrect conversion result.");
+        }
+    }
+    
+    /**
+     * Tests the "path between units doesn't exist" case.
+     */
+    @Test
+    public void testConvertArrayPathDoesNotExist(){
+        double[] values = {10.5, -3};
+        
+        assertEquals(null, converter.convert(values, "m", "°C"), "Returned result despite conversion not existing.");
+        assertEquals(false, converter.convertInPlace(values, "m", "°C"), "Returned result despite conversion not existing.");
+        assertArrayEquals(new double[]{10.5, -3}, values, "Values were changed despite conversion not existing.");
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tested methods:
+     * ArrayList<ValueWithUnit> convertToAll(ValueWithUnit)
+     * 
+     * Tested cases:
+     * unit is connected to other units - every connected unit is returned with a value equal to convert() result
+     * unit isn't included in any conversion - empty list is returned
+     */
+    
+    /**
+     * Tests the "unit is connected to other units" case.
+     */
+    @Test
+    public void testConvertToAll(){
+        ValueWithUnit input = new ValueWithUnit(10.5, "km");
+        ArrayList<ValueWithUnit> results = converter.convertToAll(input);
+        
+        ArrayList<String> units = new ArrayList<>();
+        for(ValueWithUnit result : results){
+            units.add(result.getUnit());
+            assertEquals(converter.convert(input, result.getUnit()).getValue(), result.getValue(), 1e-9,
+                         "Incorrect conversion result.");
+        }
+        assertEquals(List.of("m", "ft", "in"), units, "Incorrect reachable units.");
+    }
+    
+    /**
+     * Tests the "unit isn't included in any conversion" case.
+     */
+    @Test
+    public void testConvertToAllUnknownUnit(){
+        assertEquals(0, converter.convertToAll(new ValueWithUnit(10.5, "kg")).size(), "Returned results for an unknown unit.");
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tested methods:
+     * ValueWithUnit convert(ValueWithUnit, String) with base metric units registered in the container
+     * ArrayList<ValueWithUnit> convertToAll(ValueWithUnit) with base metric units registered in the container
+     * 
+     * Tested cases:
+     * prefixed unit isn't stored - result is equal to the result of stored prefix conversions
+     * both units are prefixed versions of the same base unit - no stored conversions are needed
+     * prefixed unit is stored - stored conversions are used
+     * base unit isn't registered - null is returned
+     * base unit is unregistered - cached prefixed conversions aren't used anymore
+     * converting to all units - prefixed units that aren't stored are included
+     * converting a prefixed unit to all units - value is converted through its base unit
+     */
+    
+    /**
+     * Tests the "prefixed unit isn't stored" case.
+     */
+    @Test
+    public void testConvertMetricUnitNotStored(){
+        container.addMetricUnit("m");
+        ValueWithUnit virtualResult = converter.convert(new ValueWithUnit(10.5, "mm"), "ft");
+        
+        container.add(new Conversion("m", "mm", new MetricPrefixesMap().returnMultiplier("m")));
+        ValueWithUnit storedResult = converter.convert(new ValueWithUnit(10.5, "mm"), "ft");
+        
+        assertEquals(storedResult.getValue(), virtualResult.getValue(), "Resolved unit gives a different result than stored conversions.");
+        assertEquals("ft", virtualResult.getUnit(), "Incorrect unit.");
+    }
+    
+    /**
+     * Tests the "both units are prefixed versions of the same base unit" case.
+     */
+    @Test
+    public void testConvertMetricUnitsSameBase(){
+        ConversionContainer empty = new ConversionContainer();
+        empty.addMetricUnit("g");
+        Converter metricConverter = new Converter(empty);
+        
+        assertEquals(10.5e6, metricConverter.convert(new ValueWithUnit(10.5, "kg"), "mg").getValue(), 1e-6, "Incorrect conversion result.");
+        assertEquals(0.0105, metricConverter.convert(new ValueWithUnit(10.5, "g"), "kg").getValue(), 1e-12, "Incorrect conversion result.");
+        assertEquals(0, empty.length(), "Conversions were stored in the container.");
+    }
+    
+    /**
+     * Tests the "prefixed unit is stored" case.
+     */
+    @Test
+    public void testConvertMetricUnitStored(){
+        container.add(new Conversion("Mm", "m", "*2"));
+        container.addMetricUnit("m");
+        
+        assertEquals(21, converter.convert(new ValueWithUnit(10.5, "Mm"), "m").getValue(), 1e-9, "Stored conversion wasn't used.");
+    }
+    
+    /**
+     * Tests the "base unit isn't registered" case.
+     */
+    @Test
+    public void testConvertMetricUnitNotRegistered(){
+        container.addMetricUnit("g");
+        
+        assertEquals(null, converter.convert(new ValueWithUnit(10.5, "mm"), "ft"), "Unregistered unit was resolved.");
+        assertEquals(false, container.addMetricUnit("kg"), "Prefixed unit was registered as a base unit.");
+    }
+    
+    /**
+     * Tests the "base unit is unregistered" case.
+     */
+    @Test
+    public void testConvertMetricUnitRemoved(){
+        container.addMetricUnit("m");
+        assertEquals(0.0105, converter.convert(new ValueWithUnit(10.5, "mm"), "m").getValue(), 1e-12, "Incorrect conversion result.");
+        
+        assertEquals(true, container.removeMetricUnit("m"), "Registered unit wasn't removed.");
+        assertEquals(false, container.removeMetricUnit("m"), "Unit was removed twice.");
+        assertEquals(null, converter.convert(new ValueWithUnit(10.5, "mm"), "m"), "Unregistered unit was resolved.");
+    }
+    
+    /**
+     * Tests the "converting to all units" case.
+     */
+    @Test
+    public void testConvertToAllMetricUnits(){
+        container.addMetricUnit("m");
+        int prefixCount = new MetricPrefixesMap().keySet().size();
+        
+        ArrayList<ValueWithUnit> results = converter.convertToAll(new ValueWithUnit(10.5, "in"));
+        
+        //ft, m, stored km and all other prefixed versions of m
+        assertEquals(2 + prefixCount, results.size(), "Incorrect number of results.");
+        for(ValueWithUnit result : results){
+            if(result.getUnit().equals("mm"))
+                assertEquals(converter.convert(new ValueWithUnit(10.5, "in"), "mm").getValue(), result.getValue(), 1e-9, "Incorrect value of a prefixed unit.");
+        }
+        assertEquals(1, results.stream().filter(r -> r.getUnit().equals("km")).count(), "Stored prefixed unit was repeated.");
+    }
+    
+    /**
+     * Tests the "converting a prefixed unit to all units" case.
+     */
+    @Test
+    public void testConvertToAllFromPrefixedUnit(){
+        container.addMetricUnit("m");
+        
+        ArrayList<ValueWithUnit> results = converter.convertToAll(new ValueWithUnit(10.5, "mm"));
+        
+        assertEquals("m", results.get(0).getUnit(), "Base unit should be the first result.");
+        assertEquals(0.0105, results.get(0).getValue(), 1e-12, "Incorrect value of the base unit.");
+        for(ValueWithUnit result : results){
+            if(result.getUnit().equals("mm"))
+                fail("Original unit was included in the results.");
+            if(result.getUnit().equals("cm"))
+                assertEquals(1.05, result.getValue(), 1e-12, "Incorrect value of a prefixed unit.");
+            if(result.getUnit().equals("in"))
+                assertEquals(0.413385, result.getValue(), 1e-6, "Incorrect value of a stored unit.");
+        }
+    }
+    
+    //--------------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Tested methods:
+     * Converter(ConversionContainer, PathSearch, ConversionCache, boolean)
+     * ValueWithUnit convert(ValueWithUnit, String) with exact arithmetic
+     * ArrayList<ValueWithUnit> convertToAll(ValueWithUnit) with exact arithmetic
+     * 
+     * Tested cases:
+     * path operations cancel out - result is equal to the original value
+     * path is converted repeatedly - transform is taken from the cache
+     * converters use both arithmetics - each keeps its own arithmetic and cached transforms
+     * stored conversion has a zero operand - it's added, exact conversion through it fails
+     * unit is prefixed - prefix is applied exactly
+     */
+    
+    /**
+     * Tests the "path operations cancel out" case.
+     */
+    @Test
+    public void testConvertExactCancellingPath(){
+        container.add(new Conversion("a", "b", "*3"));
+        container.add(new Conversion("b", "c", "/7"));
+        container.add(new Conversion("d", "c", "/7"));
+        container.add(new Conversion("d", "e", "/3+0.1"));
+        converter = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache(), true);
+        
+        Random random = new Random(20);
+        for(int i = 0; i < 1000; i++){
+            double value = random.nextDouble() * 1000;
+            assertEquals(value + 0.1, converter.convert(new ValueWithUnit(value, "a"), "e").getValue(),
+                         "Exact conversion introduced rounding errors.");
+        }
+        for(ValueWithUnit result : converter.convertToAll(new ValueWithUnit(10.5, "a"))){
+            if(result.getUnit().equals("e"))
+                assertEquals(10.5 + 0.1, result.getValue(), "Exact conversion introduced rounding errors.");
+        }
+    }
+    
+    /**
+     * Tests the "path is converted repeatedly" case.
+     */
+    @Test
+    public void testConvertExactCached(){
+        converter = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache(), true);
+        ValueWithUnit first = converter.convert(new ValueWithUnit(10.5, "km"), "in");
+        ValueWithUnit second = converter.convert(new ValueWithUnit(10.5, "km"), "in");
+        
+        assertEquals(first.getValue(), second.getValue(), "Cached transform gives a different result.");
+        assertEquals(1, converter.getCache().getHits(), "Transform wasn't taken from the cache.");
+        assertEquals(413385.84, first.getValue(), 1e-9, "Incorrect conversion result.");
+    }
+    
+    /**
+     * Tests the "converters use both arithmetics" case.
+     */
+    @Test
+    public void testConvertExactAndRounded(){
+        container.add(new Conversion("a", "b", "*3"));
+        container.add(new Conversion("b", "c", "/3+0.1"));
+        Converter exact = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache(), true);
+        
+        assertEquals(false, converter.isExactArithmetic(), "Default converter uses exact arithmetic.");
+        assertEquals(true, exact.isExactArithmetic(), "Arithmetic passed to the constructor was ignored.");
+        for(int i = 0; i < 2; i++){
+            assertEquals(0.1 * 3 / 3 + 0.1, converter.convert(new ValueWithUnit(0.1, "a"), "c").getValue(), "Incorrect rounded result.");
+            assertEquals(0.1 + 0.1, exact.convert(new ValueWithUnit(0.1, "a"), "c").getValue(), "Incorrect exact result.");
+        }
+        assertEquals(1, converter.getCache().getHits(), "Rounded transform wasn't cached.");
+        assertEquals(1, exact.getCache().getHits(), "Exact transform wasn't cached.");
+    }
+    
+    /**
+     * Tests the "stored conversion has a zero operand" case.
+     */
+    @Test
+    public void testConvertExactZeroOperand(){
+        container.add(new Conversion("a", "b", OperationSequenceLexer.parseStored("*0")));
+        Converter exact = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache(), true);
+        
+        assertEquals(0, converter.convert(new ValueWithUnit(5, "a"), "b").getValue(), "Incorrect rounded result.");
+        try{
+            exact.convert(new ValueWithUnit(5, "a"), "b");
+            fail("Conversion without an exact inverse should result in an exception.");
+        }catch(ArithmeticException e){
+        }
+    }
+    
+    /**
+     * Tests the "unit is prefixed" case.
+     */
+    @Test
+    public void testConvertExactPrefixed(){
+        container.addMetricUnit("m");
+        converter = new Converter(container, PathSearch.BREADTH_FIRST, new ConversionCache(), true);
+        
+        assertEquals(350, converter.convert(new ValueWithUnit(35, "cm"), "mm").getValue(), "Incorrect conversion result.");
+        assertEquals(3500, converter.convert(new ValueWithUnit(0.0035, "km"), "mm").getValue(), "Incorrect conversion result.");
+    }
+    
 }
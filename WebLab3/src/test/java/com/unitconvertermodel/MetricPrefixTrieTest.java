@@ -0,0 +1,104 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.MetricPrefixTrie;
+import pl.polsl.lab.model.MetricPrefixTrie.Classification;
+import pl.polsl.lab.model.NoPrefixUnitFormat;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * Class responsible for testing the MetricPrefixTrie class.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class MetricPrefixTrieTest {
+
+    /**
+     * Tested methods:
+     * Match classify(CharSequence)
+     * boolean isNoPrefixUnit(CharSequence)
+     *
+     * Tested cases:
+     * symbols of every kind - correct classification and prefix
+     * random symbols - isNoPrefixUnit agrees with the NoPrefixUnitFormat regex
+     * symbol is null - exception
+     */
+
+    /**
+     * Provides data for the "symbols of every kind" test case.
+     *
+     * @return test arguments.
+     */
+    private static Stream<Arguments> testClassify() {
+        return Stream.of(
+            arguments("g", Classification.BASE, null),
+            arguments("m", Classification.BASE, null),
+            arguments("da", Classification.BASE, null),
+            arguments("Pa", Classification.BASE, null),
+            arguments("", Classification.BASE, null),
+            arguments("km", Classification.PREFIXED, "k"),
+            arguments("mm", Classification.PREFIXED, "m"),
+            arguments("μm", Classification.PREFIXED, "μ"),
+            arguments("dg", Classification.PREFIXED, "d"),
+            arguments("dam", Classification.AMBIGUOUS, null),
+            arguments("day", Classification.AMBIGUOUS, null)
+        );
+    }
+
+    /**
+     * Tests the "symbols of every kind" case.
+     *
+     * @param symbol classified symbol.
+     * @param classification expected classification.
+     * @param prefix expected prefix.
+     */
+    @ParameterizedTest
+    @MethodSource
+    public void testClassify(String symbol, Classification classification, String prefix){
+        MetricPrefixTrie.Match match = MetricPrefixTrie.getInstance().classify(symbol);
+
+        assertEquals(classification, match.classification(), "Incorrect classification of " + symbol + ".");
+        assertEquals(prefix, match.prefix(), "Incorrect prefix of " + symbol + ".");
+    }
+
+    /**
+     * Tests the "random symbols" case.
+     */
+    @Test
+    public void testIsNoPrefixUnitMatchesRegex(){
+        Pattern regex = new NoPrefixUnitFormat().getNoPrefixRegex();
+        MetricPrefixTrie trie = MetricPrefixTrie.getInstance();
+        Random random = new Random(18);
+        String alphabet = "TGMkhdcmμnpagsK_1 °|";
+
+        for(int i = 0; i < 20000; i++){
+            StringBuilder symbol = new StringBuilder();
+            int length = random.nextInt(5);
+            for(int j = 0; j < length; j++){
+                symbol.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(regex.matcher(symbol).matches(), trie.isNoPrefixUnit(symbol),
+                         "Trie and regex disagree on \"" + symbol + "\".");
+        }
+    }
+
+    /**
+     * Tests the "symbol is null" case.
+     */
+    @Test
+    public void testClassifyNull(){
+        try{
+            MetricPrefixTrie.getInstance().classify(null);
+            fail("Classifying null should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+    }
+}
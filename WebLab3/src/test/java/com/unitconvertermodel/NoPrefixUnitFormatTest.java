@@ -32,6 +32,11 @@ public class NoPrefixUnitFormatTest {
             arguments("m", true),
             arguments("kg", false),
             arguments("dag", false),
+            arguments("da", true),
+            arguments("μ", true),
+            arguments("Pa", true),
+            arguments("°C", false),
+            arguments("|", false),
             arguments("a b", false),
             arguments("", false),
             arguments(" ", false)
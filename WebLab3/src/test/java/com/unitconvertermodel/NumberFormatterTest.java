@@ -0,0 +1,122 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.NumberFormatter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Class responsible for testing the NumberFormatter class.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class NumberFormatterTest {
+
+    /**
+     * Tested methods:
+     * String format(double)
+     * StringBuilder appendTo(StringBuilder, double)
+     * Appendable appendTo(Appendable, double)
+     *
+     * Tested cases:
+     * special values - output is the same as DecimalFormat output
+     * random values - output is the same as DecimalFormat output
+     * appending - value is written after existing content
+     * negative number of digits - exception
+     */
+
+    /**
+     * Creates DecimalFormat producing the expected output.
+     *
+     * @param digits maximum number of fraction digits.
+     * @return DecimalFormat with the "0.#" pattern.
+     */
+    private static DecimalFormat decimalFormat(int digits){
+        DecimalFormat df = new DecimalFormat("0.#");
+        df.setDecimalFormatSymbols(DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+        df.setMaximumFractionDigits(digits);
+        return df;
+    }
+
+    /**
+     * Tests the "special values" case.
+     *
+     * @param digits maximum number of fraction digits.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 5, 16, 20 })
+    public void testFormatSpecialValues(int digits){
+        DecimalFormat df = decimalFormat(digits);
+        NumberFormatter formatter = new NumberFormatter(digits);
+        double[] values = { 0.0, -0.0, 1, -1, 0.5, 1.5, 2.5, -2.5, 0.1, 0.000005, 0.000015, 0.000025,
+                            -0.000001, 3.28084, 1e-7, 1e-16, 1e-20, 123456.123455, 1e15, 1e20,
+                            Math.pow(2, 53), Math.pow(2, 60), Double.MIN_VALUE, Double.MAX_VALUE,
+                            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+
+        for(double value : values){
+            assertEquals(df.format(value), formatter.format(value), "Incorrect output for " + value + ".");
+        }
+    }
+
+    /**
+     * Tests the "random values" case.
+     *
+     * @param digits maximum number of fraction digits.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 2, 5, 16 })
+    public void testFormatRandomValues(int digits){
+        DecimalFormat df = decimalFormat(digits);
+        NumberFormatter formatter = new NumberFormatter(digits);
+        Random random = new Random(15 + digits);
+
+        for(int i = 0; i < 50000; i++){
+            double value = switch(i % 4){
+                case 0 -> Double.longBitsToDouble(random.nextLong());
+                case 1 -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+                case 2 -> (random.nextInt(2000001) - 1000000) / Math.pow(10, random.nextInt(18));
+                default -> (random.nextInt(200) + 0.5) / Math.pow(10, random.nextInt(8));
+            };
+            assertEquals(df.format(value), formatter.format(value), "Incorrect output for " + value + ".");
+        }
+    }
+
+    /**
+     * Tests the "appending" case.
+     *
+     * @throws IOException if writing fails.
+     */
+    @Test
+    public void testAppendTo() throws IOException{
+        NumberFormatter formatter = new NumberFormatter(5);
+
+        StringBuilder builder = new StringBuilder("x=");
+        assertEquals("x=-1.33333", formatter.appendTo(builder, -4.0 / 3).toString(), "Incorrect appended text.");
+
+        StringWriter writer = new StringWriter();
+        writer.write("y=");
+        formatter.appendTo(writer, 1200.5);
+        assertEquals("y=1200.5", writer.toString(), "Incorrect appended text.");
+    }
+
+    /**
+     * Tests the "negative number of digits" case.
+     */
+    @Test
+    public void testNegativeDigits(){
+        try{
+            new NumberFormatter(-1);
+            fail("Negative number of fraction digits should result in an exception.");
+        }catch(IllegalArgumentException e){
+        }
+    }
+}
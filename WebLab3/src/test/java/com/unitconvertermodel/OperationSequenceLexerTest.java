@@ -0,0 +1,192 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.InvalidOperationSequenceException;
+import pl.polsl.lab.model.Operation;
+import pl.polsl.lab.model.OperationFormat;
+import pl.polsl.lab.model.OperationSequence;
+import pl.polsl.lab.model.OperationSequenceLexer;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * Class responsible for testing the OperationSequenceLexer class.
+ *
+ * @version 1.1
+ * @author Kinga Adamczak
+ */
+public class OperationSequenceLexerTest {
+
+    /**
+     * Tested methods:
+     * OperationSequence parse(CharSequence)
+     * OperationSequence parseStored(CharSequence)
+     * boolean isValid(CharSequence)
+     *
+     * Tested cases:
+     * text is valid - operands are equal to Double.parseDouble results
+     * text is invalid - exception reports position of the first incorrect character
+     * random texts - accepted exactly when they match the OperationFormat regex
+     * text is stored - zero operands and leading zeros are accepted
+     * stored text is invalid - exception
+     * operand is written as zero - entered text is rejected, stored text is accepted
+     */
+
+    /**
+     * Tests the "text is valid" case.
+     *
+     * @param text parsed text.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "+2", "*0.001", "-273.15*9/5+32", "/0.0000000000000001",
+                             "*10000000000000000", "+100.10", "*0.1", "+3.14159265358979323846",
+                             "*123456789012345678901234567890" })
+    public void testParseValid(String text){
+        OperationSequence seq = OperationSequenceLexer.parse(text);
+
+        int index = 0;
+        int start = 0;
+        for(int i = 1; i <= text.length(); i++){
+            if(i == text.length() || "+-*/".indexOf(text.charAt(i)) >= 0){
+                Operation expected = new Operation(text.charAt(start), Double.parseDouble(text.substring(start + 1, i)));
+                assertEquals(expected, seq.get(index), "Incorrect parsed operation.");
+                index++;
+                start = i;
+            }
+        }
+        assertEquals(index, seq.length(), "Incorrect number of operations.");
+    }
+
+    /**
+     * Provides data for the "text is invalid" test case.
+     *
+     * @return test arguments.
+     */
+    private static Stream<Arguments> testParseInvalid() {
+        return Stream.of(
+            arguments("", 0),
+            arguments(" ", 0),
+            arguments("3.2", 0),
+            arguments("+", 1),
+            arguments("+2*", 3),
+            arguments("+2a", 2),
+            arguments("+0", 2),
+            arguments("+0.0", 1),
+            arguments("+01", 2),
+            arguments("+1.", 3),
+            arguments("+1.5.2", 4),
+            arguments("*2 +3", 2),
+            arguments("+-2", 1),
+            arguments("/0.000000000000000000000000001", 1)
+        );
+    }
+
+    /**
+     * Tests the "text is invalid" case.
+     *
+     * @param text parsed text.
+     * @param position expected index of the incorrect character.
+     */
+    @ParameterizedTest
+    @MethodSource
+    public void testParseInvalid(String text, int position){
+        try{
+            OperationSequenceLexer.parse(text);
+            fail("Parsing an incorrect sequence should result in an exception.");
+        }catch(InvalidOperationSequenceException e){
+            assertEquals(position, e.getErrorIndex(), "Incorrect error position.");
+        }
+    }
+
+    /**
+     * Tests the "text is valid" case on random numbers of different lengths.
+     */
+    @Test
+    public void testParseRandomNumbers(){
+        Random random = new Random(41);
+        for(int i = 0; i < 20000; i++){
+            StringBuilder number = new StringBuilder();
+            number.append(1 + random.nextInt(9));
+            int integerDigits = random.nextInt(20);
+            for(int j = 0; j < integerDigits; j++){
+                number.append(random.nextInt(10));
+            }
+            int fractionDigits = random.nextInt(20);
+            if(fractionDigits > 0)
+                number.append('.');
+            for(int j = 0; j < fractionDigits; j++){
+                number.append(random.nextInt(10));
+            }
+            double expected = Double.parseDouble(number.toString());
+
+            OperationSequence seq = OperationSequenceLexer.parse("*" + number);
+
+            assertEquals(expected, seq.get(0).value(), "Incorrect value parsed from " + number + ".");
+        }
+    }
+
+    /**
+     * Tests the "random texts" case.
+     */
+    @Test
+    public void testIsValidMatchesRegex(){
+        Pattern regex = new OperationFormat().getOpSequenceRegex();
+        Random random = new Random(14);
+        String alphabet = "+-*/0123456789..a ";
+
+        for(int i = 0; i < 20000; i++){
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for(int j = 0; j < length; j++){
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(regex.matcher(text).matches(), OperationSequenceLexer.isValid(text),
+                         "Lexer and regex disagree on \"" + text + "\".");
+        }
+    }
+
+    /**
+     * Tests the "text is stored" case.
+     *
+     * @param text parsed text.
+     * @param expected expected value of the first operand.
+     */
+    @ParameterizedTest
+    @CsvSource({ "*0, 0", "+0.0, 0", "/007.5, 7.5", "*0.000000000000000000000000001*2, 1e-27", "-273.15*9/5+32, 273.15" })
+    public void testParseStored(String text, double expected){
+        assertEquals(expected, OperationSequenceLexer.parseStored(text).get(0).value(), "Incorrect parsed operand.");
+    }
+
+    /**
+     * Tests the "stored text is invalid" case.
+     *
+     * @param text parsed text.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "", "*", "3.2", "+2a", "+1.", "*2 +3" })
+    public void testParseStoredInvalid(String text){
+        try{
+            OperationSequenceLexer.parseStored(text);
+            fail("Parsing an incorrect sequence should result in an exception.");
+        }catch(InvalidOperationSequenceException e){
+        }
+    }
+
+    /**
+     * Tests the "operand is written as zero" case.
+     */
+    @Test
+    public void testParseWrittenAsZero(){
+        String stored = "*2" + new Operation('*', 1e-17);
+
+        assertEquals("*2*0", stored, "Operand wasn't written as zero.");
+        assertEquals(false, OperationSequenceLexer.isValid("*0.00000000000000001"), "Operand written as zero was accepted.");
+        assertEquals(0, OperationSequenceLexer.parseStored(stored).get(1).value(), "Stored operand wasn't read.");
+    }
+}
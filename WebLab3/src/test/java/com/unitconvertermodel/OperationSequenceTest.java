@@ -2,6 +2,7 @@ package com.unitconvertermodel;
 
 import pl.polsl.lab.model.Operation;
 import pl.polsl.lab.model.OperationSequence;
+import java.util.List;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
@@ -21,7 +22,7 @@ public class OperationSequenceTest {
     
     /**
      * Tested methods:
-     * void add(OperationSequence)
+     * OperationSequence add(OperationSequence)
      * 
      * Tested cases:
      * both sequences have elements
@@ -63,10 +64,12 @@ public class OperationSequenceTest {
         OperationSequence opSeq2 = new OperationSequence(opArgs2);    
         OperationSequence opSeqExpected = new OperationSequence(expected);
         
-        opSeq1.add(opSeq2);
+        OperationSequence result = opSeq1.add(opSeq2);
         
-        assertEquals(opSeqExpected,opSeq1,
+        assertEquals(opSeqExpected,result,
         "Resulting sequence should consist of the original sequence plus the added sequence at the end.");
+        assertEquals(new OperationSequence(opArgs1), opSeq1, "Original sequence shouldn't be changed.");
+        assertEquals(new OperationSequence(opArgs2), opSeq2, "Added sequence shouldn't be changed.");
     }
     
     /**
@@ -97,9 +100,9 @@ public class OperationSequenceTest {
     @ParameterizedTest
     @MethodSource
     public void testAddEmpty(OperationSequence seq1, OperationSequence seq2, OperationSequence expected){
-        seq1.add(seq2);
+        OperationSequence result = seq1.add(seq2);
         
-        assertEquals(expected, seq1,
+        assertEquals(expected, result,
         "Resulting sequence should consist of the original sequence plus the added sequence at the end.");
     }
     
@@ -120,24 +123,25 @@ public class OperationSequenceTest {
     
     /**
      * Tests the "added sequence is the same object" case.
+     * Sequences are immutable, so a sequence can be joined with itself.
      */
     @Test
     public void testAddSame(){
         OperationSequence seq1 = new OperationSequence("+2");
         OperationSequence seq2 = seq1;
         
-        try{
-            seq1.add(seq2);
-            fail("Attempt to add itself should result in an exception.");
-        }catch(IllegalArgumentException e){        
-        }
+        OperationSequence result = seq1.add(seq2);
+        
+        assertEquals(new OperationSequence("+2+2"), result,
+        "Sequence joined with itself should contain its operations twice.");
+        assertEquals(new OperationSequence("+2"), seq1, "Original sequence shouldn't be changed.");
     }
 
     //--------------------------------------------------------------------------------------------------------------------
     
     /**
      * Tests method:
-     * void Invert()
+     * OperationSequence invert()
      * 
      * Test cases:
      * sequence contains operations
@@ -173,13 +177,14 @@ public class OperationSequenceTest {
     @ParameterizedTest
     @MethodSource
     public void testInvertFull(String operations, String expected){
-        OperationSequence opSeqInverted = new OperationSequence(operations);
+        OperationSequence opSeq = new OperationSequence(operations);
         OperationSequence opSeqExpected = new OperationSequence(expected);
         
-        opSeqInverted.invert();
+        OperationSequence opSeqInverted = opSeq.invert();
         
         assertEquals(opSeqExpected,opSeqInverted,
                 "Result should have the numbers be in reverse order, preceded by opposite operators.");
+        assertEquals(new OperationSequence(operations), opSeq, "Original sequence shouldn't be changed.");
     }
     
     /**
@@ -191,9 +196,9 @@ public class OperationSequenceTest {
         OperationSequence opSeqEmpty = new OperationSequence();
         OperationSequence opSeqExpected = new OperationSequence();
         
-        opSeqEmpty.invert();
+        OperationSequence opSeqInverted = opSeqEmpty.invert();
         
-        assertEquals(opSeqExpected,opSeqEmpty, 
+        assertEquals(opSeqExpected,opSeqInverted, 
                 "Empty sequence should undergo no changes after inversion.");
     }
     
@@ -360,4 +365,21 @@ public class OperationSequenceTest {
         Boolean result = o1.equals(o2);
         assertEquals(false, result, "Incorrect equals result for null object.");
     }
+    
+    /**
+     * Tests if sequences with the same operations, built in different ways
+     * (parsed, joined, copied, inverted twice), are equal and have equal hash codes.
+     */
+    @Test
+    public void testEqualsDifferentlyBuilt(){
+        OperationSequence parsed = new OperationSequence("+1.5*2-3");
+        OperationSequence joined = new OperationSequence("+1.5").add(new OperationSequence("*2-3"));
+        OperationSequence copied = new OperationSequence(parsed);
+        OperationSequence inverted = new OperationSequence("+1.5*2-3").invert().invert();
+        
+        for(OperationSequence seq : List.of(joined, copied, inverted)){
+            assertEquals(parsed, seq, "Sequences with the same operations aren't equal.");
+            assertEquals(parsed.hashCode(), seq.hashCode(), "Equal sequences have different hash codes.");
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.unitconvertermodel;
+
+import pl.polsl.lab.model.Rational;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+import org.junit.jupiter.params.provider.*;
+
+/**
+ * Class responsible for testing the Rational class.
+ *
+ * @version 1.0
+ * @author Kinga Adamczak
+ */
+public class RationalTest {
+
+    /**
+     * Tested methods:
+     * Rational of(long, long)
+     * Rational valueOf(double)
+     * Rational add(Rational), subtract(Rational), multiply(Rational), divide(Rational)
+     * double doubleValue()
+     *
+     * Tested cases:
+     * decimals - fraction is equal to the written decimal
+     * arithmetic - results are exact and reduced, also when they don't fit in longs
+     * conversion to double - result is the nearest double
+     * denominator is zero - exception
+     */
+
+    /**
+     * Provides data for the "decimals" test case.
+     *
+     * @return test arguments.
+     */
+    private static Stream<Arguments> testValueOf() {
+        return Stream.of(
+            arguments(0.1, "1/10"),
+            arguments(3.28084, "82021/25000"),
+            arguments(-273.15, "-5463/20"),
+            arguments(1e20, "100000000000000000000"),
+            arguments(1e-16, "1/10000000000000000"),
+            arguments(0.0, "0")
+        );
+    }
+
+    /**
+     * Tests the "decimals" case.
+     *
+     * @param value converted value.
+     * @param expected expected fraction.
+     */
+    @ParameterizedTest
+    @MethodSource
+    public void testValueOf(double value, String expected){
+        assertEquals(expected, Rational.valueOf(value).toString(), "Incorrect fraction.");
+    }
+
+    /**
+     * Tests the "arithmetic" case.
+     */
+    @Test
+    public void testArithmetic(){
+        Rational tenth = Rational.valueOf(0.1);
+        Rational third = Rational.of(1, 3);
+
+        assertEquals(Rational.of(13, 30), tenth.add(third), "Incorrect sum.");
+        assertEquals(Rational.of(-7, 30), tenth.subtract(third), "Incorrect difference.");
+        assertEquals(Rational.of(1, 30), tenth.multiply(third), "Incorrect product.");
+        assertEquals(Rational.of(3, 10), tenth.divide(third), "Incorrect quotient.");
+        assertEquals(Rational.of(2, 4), Rational.of(-3, -6), "Fractions weren't reduced.");
+
+        Rational big = Rational.of(Long.MAX_VALUE, 10);
+        Rational square = big.multiply(big);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        assertEquals(max.multiply(max), square.getNumerator(), "Incorrect numerator of a big product.");
+        assertEquals(BigInteger.valueOf(100), square.getDenominator(), "Incorrect denominator of a big product.");
+        assertEquals(big, square.divide(big), "Incorrect quotient of big fractions.");
+        assertEquals(Rational.ZERO, square.subtract(square), "Incorrect difference of big fractions.");
+    }
+
+    /**
+     * Tests the "conversion to double" case.
+     */
+    @Test
+    public void testDoubleValue(){
+        Random random = new Random(20);
+        for(int i = 0; i < 20000; i++){
+            BigInteger num = new BigInteger(1 + random.nextInt(120), random);
+            BigInteger den = new BigInteger(1 + random.nextInt(120), random).add(BigInteger.ONE);
+            if(random.nextBoolean())
+                num = num.negate();
+
+            double expected = new BigDecimal(num).divide(new BigDecimal(den), new MathContext(60)).doubleValue();
+
+            assertEquals(expected, Rational.of(num, den).doubleValue(), "Incorrect value of " + num + "/" + den + ".");
+        }
+        assertEquals(0.1, Rational.valueOf(0.1).doubleValue(), "Incorrect value of 1/10.");
+    }
+
+    /**
+     * Tests the "denominator is zero" case.
+     */
+    @Test
+    public void testZeroDenominator(){
+        try{
+            Rational.of(1, 0);
+            fail("Zero denominator should result in an exception.");
+        }catch(ArithmeticException e){
+        }
+        try{
+            Rational.ONE.divide(Rational.ZERO);
+            fail("Division by zero should result in an exception.");
+        }catch(ArithmeticException e){
+        }
+    }
+}